@@ -0,0 +1,151 @@
+package maths.homology;
+
+import java.util.Arrays;
+
+/**
+ * Class representing the barcode of a filtered differential complex: at each
+ * graduation, the intervals of levels {@code [birth, death)} during which
+ * the generators of the homology over a field live.
+ *
+ * @author flo
+ */
+public final class Barcode {
+
+    /**
+     * Death level of the classes which never die.
+     */
+    public static final int INFINITY = Integer.MAX_VALUE;
+
+    private final GradedArray<Bars> bars = new GradedArray<>();
+
+    /**
+     * Adds a bar.
+     *
+     * @param grad The graduation.
+     * @param birth The level at which the class appears.
+     * @param death The level at which the class vanishes, or
+     * {@code INFINITY}.
+     */
+    void addBar(final int grad, final int birth, final int death) {
+        Bars gradBars = bars.get(grad);
+        if (gradBars == null) {
+            gradBars = new Bars();
+            bars.put(grad, gradBars);
+        }
+        gradBars.add(birth, death);
+    }
+
+    /**
+     * Returns the number of bars at a graduation.
+     *
+     * @param grad The graduation.
+     *
+     * @return The number of bars.
+     */
+    public int getBarNbr(final int grad) {
+        final Bars gradBars = bars.get(grad);
+        return gradBars == null ? 0 : gradBars.size;
+    }
+
+    /**
+     * Returns the birth levels of the bars at a graduation.
+     *
+     * @param grad The graduation.
+     *
+     * @return The birth levels, matching {@code getDeaths(grad)}.
+     */
+    public int[] getBirths(final int grad) {
+        final Bars gradBars = bars.get(grad);
+        return gradBars == null ? new int[0] : Arrays.copyOf(gradBars.births, gradBars.size);
+    }
+
+    /**
+     * Returns the death levels of the bars at a graduation.
+     *
+     * @param grad The graduation.
+     *
+     * @return The death levels, {@code INFINITY} for the classes which never
+     * die.
+     */
+    public int[] getDeaths(final int grad) {
+        final Bars gradBars = bars.get(grad);
+        return gradBars == null ? new int[0] : Arrays.copyOf(gradBars.deaths, gradBars.size);
+    }
+
+    /**
+     * Gives the rank of the homology at a graduation of the subcomplex of the
+     * generators of level at most {@code level}.
+     *
+     * @param grad The graduation.
+     * @param level The filtration level.
+     *
+     * @return The number of bars containing {@code level}.
+     */
+    public int getRank(final int grad, final int level) {
+        final Bars gradBars = bars.get(grad);
+        if (gradBars == null) {
+            return 0;
+        }
+
+        int rank = 0;
+        for (int k = 0; k < gradBars.size; k++) {
+            if (gradBars.births[k] <= level && level < gradBars.deaths[k]) {
+                rank++;
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * Tells if there is no bar.
+     *
+     * @return {@code true} if there is no bar, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return bars.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder barcode = new StringBuilder(200);
+        for (final int grad : bars.keys()) {
+            final Bars gradBars = bars.get(grad);
+            barcode.append(grad).append(" :");
+            for (int k = 0; k < gradBars.size; k++) {
+                barcode.append(" [").append(gradBars.births[k]).append(", ")
+                        .append(gradBars.deaths[k] == INFINITY ? "inf" : String.valueOf(gradBars.deaths[k]))
+                        .append(')');
+            }
+            barcode.append('\n');
+        }
+
+        return barcode.toString();
+    }
+
+    /**
+     * Bars of one graduation stored in parallel arrays.
+     */
+    private static final class Bars {
+
+        private int[] births = new int[8];
+        private int[] deaths = new int[8];
+        private int size = 0;
+
+        /**
+         * Appends a bar.
+         *
+         * @param birth The birth level.
+         * @param death The death level.
+         */
+        private void add(final int birth, final int death) {
+            if (size == births.length) {
+                births = Arrays.copyOf(births, 2 * size);
+                deaths = Arrays.copyOf(deaths, 2 * size);
+            }
+            births[size] = birth;
+            deaths[size] = death;
+            size++;
+        }
+    }
+}
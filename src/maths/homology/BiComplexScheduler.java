@@ -0,0 +1,154 @@
+package maths.homology;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import maths.matrix.SNFSummary;
+
+/**
+ * Class computing the homology of a bigraded differential complex by
+ * reducing all its (i,j) differentials in a pool of threads. The reductions
+ * are submitted from the most to the least expensive one, across both
+ * graduations, so that no thread is left with a big differential at the
+ * end. A scheduler creating its pool must be closed to stop its threads.
+ *
+ * @author flo
+ */
+public final class BiComplexScheduler implements AutoCloseable {
+
+    private final SNFCalculator calculator;
+    private final ForkJoinPool pool;
+
+    /**
+     * {@code true} if the pool was created by the scheduler.
+     */
+    private final boolean ownPool;
+
+    /**
+     * Creates a scheduler reducing dense differentials with one thread per
+     * available processor.
+     */
+    public BiComplexScheduler() {
+        this(false, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param sparse {@code true} to reduce the differentials as sparse
+     * matrices.
+     * @param poolSize The number of threads.
+     */
+    public BiComplexScheduler(final boolean sparse, final int poolSize) {
+        calculator = new SNFCalculator(sparse);
+        pool = new ForkJoinPool(poolSize, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        ownPool = true;
+    }
+
+    /**
+     * Creates a scheduler running the reductions in an existing pool, which
+     * is not shut down when the scheduler is closed.
+     *
+     * @param sparse {@code true} to reduce the differentials as sparse
+     * matrices.
+     * @param pool The pool running the reductions.
+     */
+    public BiComplexScheduler(final boolean sparse, final ForkJoinPool pool) {
+        calculator = new SNFCalculator(sparse);
+        this.pool = pool;
+        ownPool = false;
+    }
+
+    /**
+     * Calculates the homology of a bigraded differential complex.
+     *
+     * @param biComplex The bigraded differential complex.
+     *
+     * @return The bigraded homology.
+     */
+    public BiGradedHomology calculateHomology(final DifferentialBiComplex biComplex) {
+        final BiGradedHomology homology = new BiGradedHomology();
+        if (biComplex.isEmpty()) {
+            return homology;
+        }
+
+        final List<Reduction> reductions = new ArrayList<>();
+        for (final int j : biComplex.getNotNulljGrads()) {
+            final DifferentialComplex complex = biComplex.getDiff(j);
+            for (int i = complex.getFirstGrad(); i <= complex.getLastGrad(); i++) {
+                reductions.add(new Reduction(complex, i, j));
+            }
+        }
+
+        reductions.sort(Comparator.comparingLong((Reduction reduction) -> reduction.cost).reversed());
+        reductions.forEach(reduction -> reduction.task
+                = pool.submit(() -> calculator.getSNFSummary(reduction.complex, reduction.iGrad)));
+        reductions.sort(Comparator.comparingInt((Reduction reduction) -> reduction.jGrad)
+                .thenComparingInt(reduction -> reduction.iGrad));
+
+        int index = 0;
+        while (index < reductions.size()) {
+            final int jGrad = reductions.get(index).jGrad;
+            final GradedHomology jHomology = new GradedHomology();
+
+            SNFSummary snf1 = SNFSummary.EMPTY;
+            int iGrad = reductions.get(index).iGrad;
+            while (index < reductions.size() && reductions.get(index).jGrad == jGrad) {
+                final SNFSummary snf2 = reductions.get(index++).task.join();
+                jHomology.setHomologyAt(iGrad++, SNFCalculator.getHomology(snf1, snf2));
+                snf1 = snf2;
+            }
+            jHomology.setHomologyAt(iGrad, SNFCalculator.getHomology(snf1, SNFSummary.EMPTY));
+
+            homology.setHomologyAt(jGrad, jHomology);
+        }
+
+        return homology;
+    }
+
+    /**
+     * Returns the number of threads of the scheduler.
+     *
+     * @return The pool size.
+     */
+    public int getPoolSize() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Shuts the threads of the scheduler down if it created its pool.
+     */
+    @Override
+    public void close() {
+        if (ownPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Reduction of one (i,j) differential.
+     */
+    private static final class Reduction {
+
+        private final DifferentialComplex complex;
+        private final int iGrad, jGrad;
+        private final long cost;
+        private ForkJoinTask<SNFSummary> task;
+
+        /**
+         * Creates a reduction and estimates its cost.
+         *
+         * @param complex The differential complex at j graduation.
+         * @param iGrad The i graduation.
+         * @param jGrad The j graduation.
+         */
+        private Reduction(final DifferentialComplex complex, final int iGrad, final int jGrad) {
+            this.complex = complex;
+            this.iGrad = iGrad;
+            this.jGrad = jGrad;
+            cost = complex.getReductionCost(iGrad);
+        }
+    }
+}
@@ -1,20 +1,20 @@
 package maths.homology;
 
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.TreeSet;
 
 /**
  * Class representing the homology associated with a bigraded differential
- * complex.
+ * complex. This class is not thread safe, concurrent computations must
+ * collect their results before adding them.
  *
  * @author flo
  */
 public class BiGradedHomology {
 
-    private final HashMap<Integer, GradedHomology> biGradedHomology = new HashMap<>();
+    private final GradedArray<GradedHomology> biGradedHomology = new GradedArray<>();
 
     private int firstjGrad = Integer.MAX_VALUE;
     private int lastjGrad = Integer.MIN_VALUE;
@@ -111,7 +111,7 @@ public class BiGradedHomology {
      * @return The graduation.
      */
     public int getFirstiGrad() {
-        return biGradedHomology.values().stream()
+        return biGradedHomology.values()
                 .map(GradedHomology::getFirstGrad)
                 .min(Comparator.naturalOrder()).get();
     }
@@ -123,7 +123,7 @@ public class BiGradedHomology {
      * @return The graduation.
      */
     public int getLastiGrad() {
-        return biGradedHomology.values().stream()
+        return biGradedHomology.values()
                 .map(GradedHomology::getLastGrad)
                 .max(Comparator.naturalOrder()).get();
     }
@@ -177,7 +177,7 @@ public class BiGradedHomology {
      * @return A {@code Set<Integer>} of the graduations.
      */
     public Set<Integer> getNotNulliGrads() {
-        return biGradedHomology.values().stream()
+        return biGradedHomology.values()
                 .map(GradedHomology::getNotNullGrads)
                 .reduce(new TreeSet<>(), (s, t) -> {
                     s.addAll(t);
@@ -0,0 +1,60 @@
+package maths.homology;
+
+/**
+ * Bigraded homology of a bigraded differential complex kept up to date while
+ * its differentials are set. Each j graduated complex has its own
+ * {@code CachedHomology}, so setting the (i,j) differential only reduces it
+ * again.
+ *
+ * @author flo
+ */
+public final class CachedBiHomology {
+
+    private final DifferentialBiComplex biComplex;
+    private final boolean sparse;
+    private final GradedArray<CachedHomology> homologies = new GradedArray<>();
+
+    /**
+     * Creates the cached homology of a bigraded differential complex,
+     * reducing dense differentials.
+     *
+     * @param biComplex The bigraded differential complex.
+     */
+    public CachedBiHomology(final DifferentialBiComplex biComplex) {
+        this(biComplex, false);
+    }
+
+    /**
+     * Creates the cached homology of a bigraded differential complex.
+     *
+     * @param biComplex The bigraded differential complex.
+     * @param sparse {@code true} to reduce the differentials as sparse
+     * matrices.
+     */
+    public CachedBiHomology(final DifferentialBiComplex biComplex, final boolean sparse) {
+        this.biComplex = biComplex;
+        this.sparse = sparse;
+    }
+
+    /**
+     * Returns the bigraded homology of the bigraded differential complex,
+     * reducing only the differentials set since the last call.
+     *
+     * @return The bigraded homology.
+     */
+    public BiGradedHomology getHomology() {
+        final BiGradedHomology homology = new BiGradedHomology();
+        for (final int jGrad : biComplex.getNotNulljGrads()) {
+            final DifferentialComplex complex = biComplex.getDiff(jGrad);
+            CachedHomology cached = homologies.get(jGrad);
+            if (cached == null || cached.getComplex() != complex) {
+                cached = new CachedHomology(complex, sparse);
+                homologies.put(jGrad, cached);
+            }
+
+            homology.setHomologyAt(jGrad, cached.getHomology());
+        }
+
+        return homology;
+    }
+}
@@ -0,0 +1,132 @@
+package maths.homology;
+
+import maths.matrix.SNFSummary;
+
+/**
+ * Homology of a differential complex kept up to date while its
+ * differentials are set. The Smith normal form summary of each differential
+ * is cached with the version of the differential, so after a differential
+ * {@code d_i} is modified only {@code d_i} is reduced again and only the
+ * homology groups at graduations {@code i} and {@code i+1} change.
+ *
+ * @author flo
+ */
+public final class CachedHomology {
+
+    private final DifferentialComplex complex;
+    private final SNFCalculator calculator;
+    private final GradedArray<CachedSummary> summaries = new GradedArray<>();
+
+    /**
+     * Creates the cached homology of a differential complex, reducing dense
+     * differentials.
+     *
+     * @param complex The differential complex.
+     */
+    public CachedHomology(final DifferentialComplex complex) {
+        this(complex, false);
+    }
+
+    /**
+     * Creates the cached homology of a differential complex.
+     *
+     * @param complex The differential complex.
+     * @param sparse {@code true} to reduce the differentials as sparse
+     * matrices.
+     */
+    public CachedHomology(final DifferentialComplex complex, final boolean sparse) {
+        this.complex = complex;
+        calculator = new SNFCalculator(sparse);
+    }
+
+    /**
+     * Returns the graded homology of the differential complex, reducing only
+     * the differentials set since the last call.
+     *
+     * @return The graded homology.
+     */
+    public GradedHomology getHomology() {
+        final GradedHomology gradedHomology = new GradedHomology();
+        if (complex.isEmpty()) {
+            return gradedHomology;
+        }
+
+        SNFSummary snf1 = SNFSummary.EMPTY;
+        for (int i = complex.getFirstGrad(); i <= complex.getLastGrad() + 1; i++) {
+            final SNFSummary snf2 = getSNFSummary(i);
+
+            gradedHomology.setHomologyAt(i, SNFCalculator.getHomology(snf1, snf2));
+
+            snf1 = snf2;
+        }
+
+        return gradedHomology;
+    }
+
+    /**
+     * Returns the homology group at one graduation, reducing only the
+     * differentials arriving at and leaving from it if they were set since
+     * the last call.
+     *
+     * @param grad The graduation.
+     *
+     * @return The homology group.
+     */
+    public Homology getHomologyAt(final int grad) {
+        return SNFCalculator.getHomology(getSNFSummary(grad - 1), getSNFSummary(grad));
+    }
+
+    /**
+     * Returns the differential complex.
+     *
+     * @return The differential complex.
+     */
+    DifferentialComplex getComplex() {
+        return complex;
+    }
+
+    /**
+     * Gives the summary of the Smith normal form of one differential, from
+     * the cache if the differential didn't change.
+     *
+     * @param grad The graduation of the differential.
+     *
+     * @return The summary of the Smith normal form.
+     */
+    private SNFSummary getSNFSummary(final int grad) {
+        final long version = complex.getVersion(grad);
+        if (version == 0) {
+            return SNFSummary.EMPTY;
+        }
+
+        final CachedSummary cached = summaries.get(grad);
+        if (cached != null && cached.version == version) {
+            return cached.summary;
+        }
+
+        final SNFSummary summary = calculator.getSNFSummary(complex, grad);
+        summaries.put(grad, new CachedSummary(version, summary));
+
+        return summary;
+    }
+
+    /**
+     * Summary of a differential with its version.
+     */
+    private static final class CachedSummary {
+
+        private final long version;
+        private final SNFSummary summary;
+
+        /**
+         * Creates a cached summary.
+         *
+         * @param version The version of the differential.
+         * @param summary The summary of its Smith normal form.
+         */
+        private CachedSummary(final long version, final SNFSummary summary) {
+            this.version = version;
+            this.summary = summary;
+        }
+    }
+}
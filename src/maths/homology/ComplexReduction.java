@@ -0,0 +1,390 @@
+package maths.homology;
+
+import java.util.Arrays;
+import maths.exceptions.MathsArgumentException;
+import maths.matrix.SparseIntegerMatrix;
+
+/**
+ * Static class shrinking a differential complex without changing its
+ * homology. Each entry {@code ±1} of a differential {@code d_i} at
+ * {@code (r,c)} pairs the generator {@code c} of the module at graduation
+ * {@code i} with the generator {@code r} of the module at graduation
+ * {@code i+1}: both are removed, {@code d_i} is replaced by its Schur
+ * complement, row {@code c} of {@code d_i-1} and column {@code r} of
+ * {@code d_i+1} are dropped. Pairs are removed until no differential has a
+ * unit entry left.
+ *
+ * @author flo
+ */
+final class ComplexReduction {
+
+    /**
+     * Non instanciable class.
+     */
+    private ComplexReduction() {
+    }
+
+    /**
+     * Reduces a differential complex.
+     *
+     * @param complex The differential complex.
+     *
+     * @return The reduced complex, with sparse differentials.
+     *
+     * @throws ArithmeticException If an entry of a reduced differential
+     * doesn't fit in an {@code int}.
+     */
+    static DifferentialComplex reduce(final DifferentialComplex complex) {
+        final DifferentialComplex reduced = new DifferentialComplex();
+        if (complex.isEmpty()) {
+            return reduced;
+        }
+
+        final int firstGrad = complex.getFirstGrad();
+        final int lastGrad = complex.getLastGrad();
+        final SparseIntegerMatrix[] matrices = new SparseIntegerMatrix[lastGrad - firstGrad + 1];
+        for (int i = firstGrad; i <= lastGrad; i++) {
+            matrices[i - firstGrad] = complex.getSparseDiff(i);
+        }
+
+        final boolean[][] alive = new boolean[matrices.length + 1][];
+        for (int k = 0; k <= matrices.length; k++) {
+            final int columns = k < matrices.length ? matrices[k].getColumnNbr() : 0;
+            final int rows = k > 0 ? matrices[k - 1].getRowNbr() : 0;
+            alive[k] = new boolean[Math.max(rows, columns)];
+            Arrays.fill(alive[k], true);
+        }
+
+        final Differential[] differentials = new Differential[matrices.length];
+        for (int k = 0; k < matrices.length; k++) {
+            differentials[k] = new Differential(matrices[k], alive[k + 1], alive[k]);
+            differentials[k].eliminateUnits();
+        }
+
+        for (int k = 0; k < differentials.length; k++) {
+            reduced.setiDiffAt(firstGrad + k, differentials[k].toSparseMatrix());
+        }
+
+        return reduced;
+    }
+
+    /**
+     * Differential being reduced, stored column by column with sorted row
+     * indices. The lists of columns of each row are only appended to, so
+     * they may hold columns whose entry has since vanished, the number of
+     * non zero entries of each row in the columns left being counted apart.
+     */
+    private static final class Differential {
+
+        private final int rows, columns;
+        private final boolean[] rowAlive, columnAlive;
+        private final int[][] indices;
+        private final long[][] values;
+        private final int[] sizes;
+        private final int[][] rowColumns;
+        private final int[] rowSizes;
+        private final int[] rowCounts;
+
+        /**
+         * Creates a differential from a sparse matrix.
+         *
+         * @param matrix The sparse matrix.
+         * @param rowAlive The generators of the target module not removed,
+         * shared with the next differential.
+         * @param columnAlive The generators of the source module not removed,
+         * shared with the previous differential.
+         */
+        private Differential(final SparseIntegerMatrix matrix, final boolean[] rowAlive,
+                final boolean[] columnAlive) {
+            rows = rowAlive.length;
+            columns = columnAlive.length;
+            this.rowAlive = rowAlive;
+            this.columnAlive = columnAlive;
+            indices = new int[columns][];
+            values = new long[columns][];
+            sizes = new int[columns];
+            rowColumns = new int[rows][];
+            rowSizes = new int[rows];
+            rowCounts = new int[rows];
+
+            for (int j = 0; j < columns; j++) {
+                if (j < matrix.getColumnNbr()) {
+                    indices[j] = matrix.getColumnIndices(j);
+                    final int[] column = matrix.getColumnValues(j);
+                    values[j] = new long[column.length];
+                    for (int k = 0; k < column.length; k++) {
+                        values[j][k] = column[k];
+                        rowSizes[indices[j][k]]++;
+                    }
+                } else {
+                    indices[j] = new int[0];
+                    values[j] = new long[0];
+                }
+                sizes[j] = indices[j].length;
+            }
+
+            for (int i = 0; i < rows; i++) {
+                rowColumns[i] = new int[Math.max(rowSizes[i], 4)];
+                rowSizes[i] = 0;
+            }
+            for (int j = 0; j < columns; j++) {
+                for (int k = 0; k < sizes[j]; k++) {
+                    appendRowColumn(indices[j][k], j);
+                    if (columnAlive[j]) {
+                        rowCounts[indices[j][k]]++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Removes pairs of generators linked by a unit entry until there is
+         * none left. Removing the pair of a unit entry adds its column to the
+         * other columns of its row, so to limit the fill-in only the pivots
+         * whose Markowitz cost {@code (c-1)(r-1)}, with {@code c} and
+         * {@code r} the numbers of entries of their column and row, is under
+         * a bound are used, the bound being doubled when there is none left.
+         * In each column the unit entry of least Markowitz cost is chosen,
+         * ties going to the one whose additions go through fewest entries.
+         */
+        private void eliminateUnits() {
+            long bound = 0;
+            boolean left = true;
+            while (left) {
+                boolean found = false;
+                left = false;
+                for (int c = 0; c < columns; c++) {
+                    if (!columnAlive[c]) {
+                        continue;
+                    }
+
+                    int pivotRow = -1;
+                    long min = Long.MAX_VALUE, minCost = -1;
+                    for (int k = 0; k < sizes[c]; k++) {
+                        final int r = indices[c][k];
+                        if (rowAlive[r] && Math.abs(values[c][k]) == 1) {
+                            final long markowitz = (long) (sizes[c] - 1) * (rowCounts[r] - 1);
+                            if (markowitz < min) {
+                                min = markowitz;
+                                minCost = -1;
+                                pivotRow = r;
+                            } else if (markowitz == min) {
+                                if (minCost < 0) {
+                                    minCost = getCost(pivotRow, c);
+                                }
+                                final long cost = getCost(r, c);
+                                if (cost < minCost) {
+                                    minCost = cost;
+                                    pivotRow = r;
+                                }
+                            }
+                        }
+                    }
+
+                    if (pivotRow == -1) {
+                        continue;
+                    }
+                    if (min <= bound) {
+                        eliminate(pivotRow, c);
+                        found = true;
+                    }
+                    left = true;
+                }
+
+                if (!found) {
+                    bound = 2 * bound + 1;
+                }
+            }
+        }
+
+        /**
+         * Gives the number of entries the additions of a column to the other
+         * columns of a row go through, that is the sum of the sizes of these
+         * columns and of the added one.
+         *
+         * @param r The row.
+         * @param c The added column.
+         *
+         * @return The cost.
+         */
+        private long getCost(final int r, final int c) {
+            long cost = 0;
+            for (int k = 0; k < rowSizes[r]; k++) {
+                final int b = rowColumns[r][k];
+                if (b != c && columnAlive[b]) {
+                    cost += sizes[b] + sizes[c];
+                }
+            }
+
+            return cost;
+        }
+
+        /**
+         * Removes a pair of generators and replaces the differential by its
+         * Schur complement: each column {@code b} with a non zero entry in
+         * row {@code r} receives {@code -d[r][b]/d[r][c]} times column
+         * {@code c}.
+         *
+         * @param r The row of the unit entry.
+         * @param c The column of the unit entry.
+         */
+        private void eliminate(final int r, final int c) {
+            final long pivot = getValue(c, r);
+
+            for (int k = 0; k < rowSizes[r]; k++) {
+                final int b = rowColumns[r][k];
+                if (b == c || !columnAlive[b]) {
+                    continue;
+                }
+                final long val = getValue(b, r);
+                if (val != 0) {
+                    addColumn(b, c, Math.negateExact(Math.multiplyExact(val, pivot)));
+                }
+            }
+
+            for (int k = 0; k < sizes[c]; k++) {
+                rowCounts[indices[c][k]]--;
+            }
+            rowAlive[r] = false;
+            columnAlive[c] = false;
+            indices[c] = new int[0];
+            values[c] = new long[0];
+            sizes[c] = 0;
+            rowColumns[r] = new int[0];
+            rowSizes[r] = 0;
+        }
+
+        /**
+         * Adds a multiple of a column to another one, dropping the removed
+         * rows.
+         *
+         * @param column1 The column index in wich we add a multiple of the
+         * second one.
+         * @param column2 The second column index.
+         * @param factor The integer.
+         */
+        private void addColumn(final int column1, final int column2, final long factor) {
+            final int[] indices1 = indices[column1], indices2 = indices[column2];
+            final long[] values1 = values[column1], values2 = values[column2];
+            final int size1 = sizes[column1], size2 = sizes[column2];
+            final int[] mergedIndices = new int[size1 + size2];
+            final long[] mergedValues = new long[size1 + size2];
+
+            int k1 = 0, k2 = 0, size = 0;
+            while (k1 < size1 || k2 < size2) {
+                final int row;
+                long val;
+                if (k2 == size2 || k1 < size1 && indices1[k1] < indices2[k2]) {
+                    row = indices1[k1];
+                    val = values1[k1++];
+                } else if (k1 == size1 || indices2[k2] < indices1[k1]) {
+                    row = indices2[k2];
+                    val = Math.multiplyExact(factor, values2[k2++]);
+                    if (val != 0 && rowAlive[row]) {
+                        appendRowColumn(row, column1);
+                        rowCounts[row]++;
+                    }
+                } else {
+                    row = indices1[k1];
+                    val = Math.addExact(values1[k1++], Math.multiplyExact(factor, values2[k2++]));
+                    if (val == 0) {
+                        rowCounts[row]--;
+                    }
+                }
+
+                if (val != 0 && rowAlive[row]) {
+                    mergedIndices[size] = row;
+                    mergedValues[size++] = val;
+                }
+            }
+
+            indices[column1] = mergedIndices;
+            values[column1] = mergedValues;
+            sizes[column1] = size;
+        }
+
+        /**
+         * Gives an element of the differential.
+         *
+         * @param column The column index.
+         * @param row The row index.
+         *
+         * @return The value of the element.
+         */
+        private long getValue(final int column, final int row) {
+            final int k = Arrays.binarySearch(indices[column], 0, sizes[column], row);
+
+            return k < 0 ? 0 : values[column][k];
+        }
+
+        /**
+         * Records that a column has an element in a row.
+         *
+         * @param row The row index.
+         * @param column The column index.
+         */
+        private void appendRowColumn(final int row, final int column) {
+            if (rowSizes[row] == rowColumns[row].length) {
+                rowColumns[row] = Arrays.copyOf(rowColumns[row], 2 * rowColumns[row].length + 1);
+            }
+            rowColumns[row][rowSizes[row]++] = column;
+        }
+
+        /**
+         * Gives the differential restricted to the generators not removed.
+         *
+         * @return The sparse matrix.
+         *
+         * @throws ArithmeticException If an element doesn't fit in an
+         * {@code int}.
+         * @throws IllegalStateException If the row indices left are not
+         * valid, which the reduction never produces.
+         */
+        private SparseIntegerMatrix toSparseMatrix() {
+            final int[] newRows = new int[rows];
+            int rowNbr = 0;
+            for (int i = 0; i < rows; i++) {
+                newRows[i] = rowAlive[i] ? rowNbr++ : -1;
+            }
+
+            int columnNbr = 0;
+            for (int j = 0; j < columns; j++) {
+                if (columnAlive[j]) {
+                    columnNbr++;
+                }
+            }
+
+            final int[][] newIndices = new int[columnNbr][];
+            final int[][] newValues = new int[columnNbr][];
+            int column = 0;
+            for (int j = 0; j < columns; j++) {
+                if (!columnAlive[j]) {
+                    continue;
+                }
+
+                int size = 0;
+                for (int k = 0; k < sizes[j]; k++) {
+                    if (rowAlive[indices[j][k]]) {
+                        size++;
+                    }
+                }
+                newIndices[column] = new int[size];
+                newValues[column] = new int[size];
+                size = 0;
+                for (int k = 0; k < sizes[j]; k++) {
+                    if (rowAlive[indices[j][k]]) {
+                        newIndices[column][size] = newRows[indices[j][k]];
+                        newValues[column][size++] = Math.toIntExact(values[j][k]);
+                    }
+                }
+                column++;
+            }
+
+            try {
+                return new SparseIntegerMatrix(rowNbr, newIndices, newValues);
+            } catch (final MathsArgumentException ex) {
+                throw new IllegalStateException("The reduced differential has inconsistent indices.", ex);
+            }
+        }
+    }
+}
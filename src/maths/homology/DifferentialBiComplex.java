@@ -1,7 +1,9 @@
 package maths.homology;
 
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import maths.matrix.IntegerMatrix;
 
 /**
@@ -11,7 +13,7 @@ import maths.matrix.IntegerMatrix;
  */
 public final class DifferentialBiComplex {
 
-    private final HashMap<Integer, DifferentialComplex> biComplex = new HashMap<>();
+    private final GradedArray<DifferentialComplex> biComplex = new GradedArray<>();
 
     private int firstjGrad = Integer.MAX_VALUE;
     private int lastjGrad = Integer.MIN_VALUE;
@@ -56,6 +58,15 @@ public final class DifferentialBiComplex {
         return biComplex.getOrDefault(jGrad, new DifferentialComplex());
     }
 
+    /**
+     * All the j graduations with non null differential complex.
+     *
+     * @return The graduations in increasing order.
+     */
+    int[] getNotNulljGrads() {
+        return biComplex.keys();
+    }
+
     /**
      * Returns the differential at (i,j) bigraduation.
      *
@@ -65,7 +76,7 @@ public final class DifferentialBiComplex {
      * @return The matrix.
      */
     public IntegerMatrix getijDiff(final int iGrad, final int jGrad) {
-        return biComplex.getOrDefault(iGrad, new DifferentialComplex()).getDiff(iGrad);
+        return biComplex.getOrDefault(jGrad, new DifferentialComplex()).getDiff(iGrad);
     }
 
     /**
@@ -114,23 +125,48 @@ public final class DifferentialBiComplex {
     }
 
     /**
-     * Returns the bigraded homology of this bigraded differential complex.
+     * Returns the total complex of this bigraded differential complex, whose
+     * differentials are assembled from the current (i,j) differentials each
+     * time they are asked for.
+     *
+     * @return The total complex.
+     */
+    public TotalComplex getTotalComplex() {
+        return new TotalComplex(this);
+    }
+
+    /**
+     * Returns the bigraded homology of this bigraded differential complex. The
+     * j graded complexes are computed in parallel, each thread collecting its
+     * own partial results which are merged at the end, and the returned
+     * homology is filled by the calling thread only.
      *
      * @param calculator The {@code Calculator} used to calculate the homology.
      *
      * @return The bigraded homology.
      */
     public BiGradedHomology getHomology(final HomologyCalculator calculator) {
+        final Map<Integer, GradedHomology> jHomologies = IntStream.of(biComplex.keys()).parallel().boxed()
+                .collect(Collectors.toMap(jGrad -> jGrad, jGrad -> biComplex.get(jGrad).getHomology(calculator)));
+
         final BiGradedHomology homology = new BiGradedHomology();
-        biComplex.keySet().parallelStream().forEach(jGrad -> {
-            final GradedHomology jHomology = biComplex.get(jGrad).getHomology(calculator);
-            jHomology.getNotNullGrads()
-                    .forEach(iGrad -> homology.setHomologyAt(iGrad, jGrad, jHomology.getHomologyAt(iGrad)));
-        });
+        jHomologies.forEach(homology::setHomologyAt);
 
         return homology;
     }
 
+    /**
+     * Returns the bigraded homology of this bigraded differential complex.
+     *
+     * @param scheduler The {@code BiComplexScheduler} used to calculate the
+     * homology.
+     *
+     * @return The bigraded homology.
+     */
+    public BiGradedHomology getHomology(final BiComplexScheduler scheduler) {
+        return scheduler.calculateHomology(this);
+    }
+
     /**
      * Returns the first i graduation with non null differential or
      * {@code Integer.MAX_VALUE} if none.
@@ -138,7 +174,7 @@ public final class DifferentialBiComplex {
      * @return The graduation.
      */
     public int getFirstiGrad() {
-        return biComplex.values().stream()
+        return biComplex.values()
                 .map(DifferentialComplex::getFirstGrad)
                 .min(Comparator.naturalOrder()).get();
     }
@@ -150,7 +186,7 @@ public final class DifferentialBiComplex {
      * @return The graduation.
      */
     public int getLastiGrad() {
-        return biComplex.values().stream()
+        return biComplex.values()
                 .map(DifferentialComplex::getLastGrad)
                 .max(Comparator.naturalOrder()).get();
     }
@@ -1,7 +1,7 @@
 package maths.homology;
 
-import java.util.HashMap;
 import maths.matrix.IntegerMatrix;
+import maths.matrix.SparseIntegerMatrix;
 
 /**
  * Class representing a differential complex.
@@ -10,7 +10,10 @@ import maths.matrix.IntegerMatrix;
  */
 public final class DifferentialComplex {
 
-    private final HashMap<Integer, IntegerMatrix> differential = new HashMap<>();
+    private final GradedArray<IntegerMatrix> differential = new GradedArray<>();
+    private final GradedArray<SparseIntegerMatrix> sparseDifferential = new GradedArray<>();
+    private final GradedArray<Long> versions = new GradedArray<>();
+    private long version = 0;
 
     private int firstGrad = Integer.MAX_VALUE;
     private int lastGrad = Integer.MIN_VALUE;
@@ -23,6 +26,7 @@ public final class DifferentialComplex {
 
     public DifferentialComplex(final int grad, final IntegerMatrix diff) {
         differential.put(grad, diff);
+        versions.put(grad, ++version);
         firstGrad = grad;
         lastGrad = grad;
     }
@@ -35,9 +39,29 @@ public final class DifferentialComplex {
      * @return The matrix.
      */
     public IntegerMatrix getDiff(final int grad) {
+        if (sparseDifferential.containsKey(grad)) {
+            return sparseDifferential.get(grad).toIntegerMatrix();
+        }
+
         return differential.getOrDefault(grad, IntegerMatrix.EMPTY);
     }
 
+    /**
+     * Returns the differential at a certain graduation as a sparse matrix. A
+     * differential set as an {@code IntegerMatrix} is converted on each call.
+     *
+     * @param grad The graduation.
+     *
+     * @return The sparse matrix.
+     */
+    public SparseIntegerMatrix getSparseDiff(final int grad) {
+        if (differential.containsKey(grad)) {
+            return new SparseIntegerMatrix(differential.get(grad));
+        }
+
+        return sparseDifferential.getOrDefault(grad, SparseIntegerMatrix.EMPTY);
+    }
+
     /**
      * Sets a differential at a certain graduation.
      *
@@ -49,7 +73,9 @@ public final class DifferentialComplex {
             return;
         }
 
+        sparseDifferential.remove(grad);
         differential.put(grad, diff);
+        versions.put(grad, ++version);
         if (firstGrad > grad) {
             firstGrad = grad;
         }
@@ -58,6 +84,106 @@ public final class DifferentialComplex {
         }
     }
 
+    /**
+     * Sets a sparse differential at a certain graduation.
+     *
+     * @param grad The graduation.
+     * @param diff The sparse matrix.
+     */
+    public void setiDiffAt(final int grad, final SparseIntegerMatrix diff) {
+        if (diff.isEmpty()) {
+            return;
+        }
+
+        differential.remove(grad);
+        sparseDifferential.put(grad, diff);
+        versions.put(grad, ++version);
+        if (firstGrad > grad) {
+            firstGrad = grad;
+        }
+        if (lastGrad < grad) {
+            lastGrad = grad;
+        }
+    }
+
+    /**
+     * Returns the version of the differential at a certain graduation, which
+     * changes each time the differential is set.
+     *
+     * @param grad The graduation.
+     *
+     * @return The version, {@code 0} if no differential was set.
+     */
+    long getVersion(final int grad) {
+        return versions.getOrDefault(grad, 0L);
+    }
+
+    /**
+     * Returns the version of the complex, which changes each time one of its
+     * differentials is set.
+     *
+     * @return The version, {@code 0} if no differential was set.
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gives the dimension of the module at a certain graduation, read from
+     * the differentials leaving from and arriving at it.
+     *
+     * @param grad The graduation.
+     *
+     * @return The dimension.
+     */
+    int getDimension(final int grad) {
+        final int columns = sparseDifferential.containsKey(grad) ? sparseDifferential.get(grad).getColumnNbr()
+                : differential.getOrDefault(grad, IntegerMatrix.EMPTY).getColumnNbr();
+        final int rows = sparseDifferential.containsKey(grad - 1) ? sparseDifferential.get(grad - 1).getRowNbr()
+                : differential.getOrDefault(grad - 1, IntegerMatrix.EMPTY).getRowNbr();
+
+        return Math.max(rows, columns);
+    }
+
+    /**
+     * Estimates the cost of reducing the differential at a certain graduation,
+     * as its number of non zero elements times its smallest dimension.
+     *
+     * @param grad The graduation.
+     *
+     * @return The estimated cost.
+     */
+    long getReductionCost(final int grad) {
+        final int rows, columns, nonZeroNbr;
+        if (sparseDifferential.containsKey(grad)) {
+            final SparseIntegerMatrix diff = sparseDifferential.get(grad);
+            rows = diff.getRowNbr();
+            columns = diff.getColumnNbr();
+            nonZeroNbr = diff.getNonZeroNbr();
+        } else {
+            final IntegerMatrix diff = differential.getOrDefault(grad, IntegerMatrix.EMPTY);
+            rows = diff.getRowNbr();
+            columns = diff.getColumnNbr();
+            nonZeroNbr = diff.getNonZeroNbr();
+        }
+
+        return (long) nonZeroNbr * Math.min(rows, columns);
+    }
+
+    /**
+     * Returns a smaller differential complex with the same homology, obtained
+     * by removing the pairs of generators linked by a unit entry of a
+     * differential.
+     *
+     * @return The reduced complex, with sparse differentials.
+     *
+     * @throws ArithmeticException If an entry of a reduced differential
+     * doesn't fit in an {@code int}.
+     */
+    public DifferentialComplex getReducedComplex() {
+        return ComplexReduction.reduce(this);
+    }
+
     /**
      * Returns the graded homology of this differential complex.
      *
@@ -96,6 +222,6 @@ public final class DifferentialComplex {
      * otherwise.
      */
     public boolean isEmpty() {
-        return differential.isEmpty();
+        return differential.isEmpty() && sparseDifferential.isEmpty();
     }
 }
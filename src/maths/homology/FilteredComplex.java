@@ -0,0 +1,69 @@
+package maths.homology;
+
+import maths.exceptions.MathsArgumentException;
+
+/**
+ * Class representing a filtered differential complex: a differential
+ * complex whose generators each get a filtration level. The generators of
+ * level at most {@code t} must span a subcomplex, that is a non zero element
+ * {@code d_i[r][c]} requires the level of {@code r} to be at most the level
+ * of {@code c}. Generators without a level set are at level {@code 0}.
+ *
+ * @author flo
+ */
+public final class FilteredComplex {
+
+    private final DifferentialComplex complex;
+    private final GradedArray<int[]> levels = new GradedArray<>();
+
+    /**
+     * Creates a filtered complex with all generators at level {@code 0}.
+     *
+     * @param complex The differential complex.
+     */
+    public FilteredComplex(final DifferentialComplex complex) {
+        this.complex = complex;
+    }
+
+    /**
+     * Sets the levels of the generators at a certain graduation.
+     *
+     * @param grad The graduation.
+     * @param levels The level of each generator.
+     *
+     * @throws MathsArgumentException If the number of levels isn't the
+     * dimension of the module at this graduation.
+     */
+    public void setLevels(final int grad, final int... levels) throws MathsArgumentException {
+        if (levels.length != complex.getDimension(grad)) {
+            throw new MathsArgumentException("There must be one level per generator.");
+        }
+
+        this.levels.put(grad, levels.clone());
+    }
+
+    /**
+     * Returns the levels of the generators at a certain graduation.
+     *
+     * @param grad The graduation.
+     *
+     * @return The level of each generator.
+     */
+    public int[] getLevels(final int grad) {
+        final int[] gradLevels = levels.get(grad);
+        if (gradLevels == null || gradLevels.length != complex.getDimension(grad)) {
+            return new int[complex.getDimension(grad)];
+        }
+
+        return gradLevels.clone();
+    }
+
+    /**
+     * Returns the differential complex.
+     *
+     * @return The differential complex.
+     */
+    public DifferentialComplex getComplex() {
+        return complex;
+    }
+}
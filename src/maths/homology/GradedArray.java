@@ -0,0 +1,220 @@
+package maths.homology;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Map from graduations to values, stored in an array indexed from the
+ * smallest graduation so that lookups don't box the keys. The array grows
+ * geometrically. Graduations are expected to lie in a small range: if they
+ * are too far apart for the array to be mostly filled, the values are moved
+ * to a sorted map.
+ *
+ * @author flo
+ *
+ * @param <T> The type of the values.
+ */
+final class GradedArray<T> {
+
+    /**
+     * Span of graduations up to which the array is used, however few the
+     * values.
+     */
+    private static final int MIN_SPAN = 1024;
+
+    private Object[] values = new Object[0];
+    private int offset = 0;
+    private int size = 0;
+
+    /**
+     * The values once the graduations are too far apart, {@code null} while
+     * the array is used.
+     */
+    private TreeMap<Integer, T> map = null;
+
+    /**
+     * Returns the value at a graduation.
+     *
+     * @param grad The graduation.
+     *
+     * @return The value or {@code null} if none.
+     */
+    @SuppressWarnings("unchecked")
+    T get(final int grad) {
+        if (map != null) {
+            return map.get(grad);
+        }
+
+        final long index = (long) grad - offset;
+        return index < 0 || index >= values.length ? null : (T) values[(int) index];
+    }
+
+    /**
+     * Returns the value at a graduation or a default value.
+     *
+     * @param grad The graduation.
+     * @param defaultValue The default value.
+     *
+     * @return The value or {@code defaultValue} if none.
+     */
+    T getOrDefault(final int grad, final T defaultValue) {
+        final T value = get(grad);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Tells if there is a value at a graduation.
+     *
+     * @param grad The graduation.
+     *
+     * @return {@code true} if there is a value, {@code false} otherwise.
+     */
+    boolean containsKey(final int grad) {
+        return get(grad) != null;
+    }
+
+    /**
+     * Sets the value at a graduation, growing the array if needed.
+     *
+     * @param grad The graduation.
+     * @param value The non null value.
+     */
+    void put(final int grad, final T value) {
+        if (map == null && values.length == 0) {
+            values = new Object[4];
+            offset = grad;
+        } else if (map == null && ((long) grad < offset || (long) grad - offset >= values.length)) {
+            grow(grad);
+        }
+
+        if (map != null) {
+            if (map.put(grad, value) == null) {
+                size++;
+            }
+            return;
+        }
+
+        final int index = (int) ((long) grad - offset);
+        if (values[index] == null) {
+            size++;
+        }
+        values[index] = value;
+    }
+
+    /**
+     * Makes room for a graduation outside the array, at least doubling its
+     * length, or moves the values to the map if the array would be mostly
+     * empty.
+     *
+     * @param grad The graduation.
+     */
+    @SuppressWarnings("unchecked")
+    private void grow(final int grad) {
+        final long first = Math.min(offset, grad);
+        final long last = Math.max((long) offset + values.length - 1, grad);
+        final long span = last - first + 1;
+
+        if (span > MIN_SPAN && span > 4L * (size + 1)) {
+            map = new TreeMap<>();
+            for (int k = 0; k < values.length; k++) {
+                if (values[k] != null) {
+                    map.put(k + offset, (T) values[k]);
+                }
+            }
+            values = new Object[0];
+            return;
+        }
+
+        final int length = (int) Math.max(span, 2L * values.length);
+        final Object[] grown = new Object[length];
+        if (grad < offset) {
+            final int newOffset = (int) Math.max(Integer.MIN_VALUE, last - length + 1);
+            System.arraycopy(values, 0, grown, offset - newOffset, values.length);
+            offset = newOffset;
+        } else {
+            System.arraycopy(values, 0, grown, 0, values.length);
+        }
+        values = grown;
+    }
+
+    /**
+     * Removes the value at a graduation.
+     *
+     * @param grad The graduation.
+     */
+    void remove(final int grad) {
+        if (map != null) {
+            if (map.remove(grad) != null) {
+                size--;
+            }
+        } else if (get(grad) != null) {
+            values[grad - offset] = null;
+            size--;
+        }
+    }
+
+    /**
+     * Tells if there is no value.
+     *
+     * @return {@code true} if there is no value, {@code false} otherwise.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the graduations holding a value.
+     *
+     * @return The graduations in increasing order.
+     */
+    int[] keys() {
+        final int[] keys = new int[size];
+        int count = 0;
+        if (map != null) {
+            for (final int key : map.keySet()) {
+                keys[count++] = key;
+            }
+            return keys;
+        }
+
+        for (int k = 0; k < values.length; k++) {
+            if (values[k] != null) {
+                keys[count++] = k + offset;
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Returns the graduations holding a value.
+     *
+     * @return A {@code Set<Integer>} of the graduations.
+     */
+    Set<Integer> keySet() {
+        final TreeSet<Integer> keySet = new TreeSet<>();
+        for (final int key : keys()) {
+            keySet.add(key);
+        }
+
+        return keySet;
+    }
+
+    /**
+     * Returns the values in increasing graduation order.
+     *
+     * @return A {@code Stream<T>} of the values.
+     */
+    @SuppressWarnings("unchecked")
+    Stream<T> values() {
+        if (map != null) {
+            return map.values().stream();
+        }
+
+        return Arrays.stream(values).filter(Objects::nonNull).map(value -> (T) value);
+    }
+}
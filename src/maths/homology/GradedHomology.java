@@ -1,6 +1,5 @@
 package maths.homology;
 
-import java.util.HashMap;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -12,7 +11,7 @@ import java.util.TreeSet;
  */
 public class GradedHomology {
 
-    private final HashMap<Integer, Homology> gradedHomology = new HashMap<>();
+    private final GradedArray<Homology> gradedHomology = new GradedArray<>();
 
     private int firstGrad = Integer.MAX_VALUE;
     private int lastGrad = Integer.MIN_VALUE;
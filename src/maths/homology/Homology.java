@@ -1,6 +1,8 @@
 package maths.homology;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -17,13 +19,15 @@ public final class Homology {
     public static final Homology NULL_HOMOLOGY = new Homology();
 
     private final int rank;
-    private final HashMap<Integer, Integer> torsion = new HashMap<>(0);
+    private final int[] torsion;
+    private final int[] torsionPowers;
 
     /**
      * Default constructor, creating a null homology group.
      */
     public Homology() {
         rank = 0;
+        torsion = torsionPowers = new int[0];
     }
 
     /**
@@ -33,6 +37,7 @@ public final class Homology {
      */
     public Homology(final int rank) {
         this.rank = rank;
+        torsion = torsionPowers = new int[0];
     }
 
     /**
@@ -45,7 +50,12 @@ public final class Homology {
      */
     public Homology(final int rank, final int torsion, final int torsionPower) {
         this.rank = rank;
-        addTorsion(torsion, torsionPower);
+        if (torsionPower != 0) {
+            this.torsion = new int[]{torsion};
+            torsionPowers = new int[]{torsionPower};
+        } else {
+            this.torsion = torsionPowers = new int[0];
+        }
     }
 
     /**
@@ -57,11 +67,25 @@ public final class Homology {
     public Homology(final int rank, final int... torsions) {
         this.rank = rank;
 
-        final HashMap<Integer, Integer> torMap = new HashMap<>();
-        for (final int i : torsions) {
-            torMap.put(i, torMap.containsKey(i) ? torMap.get(i) + 1 : 1);
+        final int[] sorted = torsions.clone();
+        Arrays.sort(sorted);
+
+        int count = 0;
+        for (int k = 0; k < sorted.length; k++) {
+            if (k == 0 || sorted[k] != sorted[k - 1]) {
+                count++;
+            }
+        }
+
+        torsion = new int[count];
+        torsionPowers = new int[count];
+        int index = -1;
+        for (int k = 0; k < sorted.length; k++) {
+            if (k == 0 || sorted[k] != sorted[k - 1]) {
+                torsion[++index] = sorted[k];
+            }
+            torsionPowers[index]++;
         }
-        torMap.forEach(this::addTorsion);
     }
 
     /**
@@ -73,18 +97,12 @@ public final class Homology {
      */
     public Homology(final int rank, final HashMap<Integer, Integer> torsion) {
         this.rank = rank;
-        torsion.forEach(this::addTorsion);
-    }
-
-    /**
-     * Adds torsion.
-     *
-     * @param torsion A torsion generator of the group.
-     * @param power The power of the torsion generator.
-     */
-    private void addTorsion(final int torsion, final int power) {
-        if (power != 0) {
-            this.torsion.put(torsion, power);
+        this.torsion = torsion.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .mapToInt(Map.Entry::getKey).sorted().toArray();
+        torsionPowers = new int[this.torsion.length];
+        for (int k = 0; k < this.torsion.length; k++) {
+            torsionPowers[k] = torsion.get(this.torsion[k]);
         }
     }
 
@@ -104,7 +122,7 @@ public final class Homology {
      * otherwise.
      */
     public boolean isTorsionFree() {
-        return torsion.isEmpty();
+        return torsion.length == 0;
     }
 
     /**
@@ -132,7 +150,45 @@ public final class Homology {
      * @return The homology torsion generators.
      */
     public Set<Integer> getTorsionGenerators() {
-        return torsion.keySet();
+        final TreeSet<Integer> generators = new TreeSet<>();
+        for (final int generator : torsion) {
+            generators.add(generator);
+        }
+
+        return generators;
+    }
+
+    /**
+     * Gives the power of a generator of the homology torsion subgroup.
+     *
+     * @param generator The torsion generator.
+     *
+     * @return The power of the generator, zero if it is not a generator.
+     */
+    public int getTorsionPower(final int generator) {
+        final int index = Arrays.binarySearch(torsion, generator);
+        return index < 0 ? 0 : torsionPowers[index];
+    }
+
+    /**
+     * Gives the direct sum with another homology group.
+     *
+     * @param homology The other homology group.
+     *
+     * @return The direct sum of both groups.
+     */
+    public Homology directSum(final Homology homology) {
+        final int[] torsions = new int[Arrays.stream(torsionPowers).sum()
+                + Arrays.stream(homology.torsionPowers).sum()];
+        int count = 0;
+        for (final Homology summand : new Homology[]{this, homology}) {
+            for (int k = 0; k < summand.torsion.length; k++) {
+                Arrays.fill(torsions, count, count + summand.torsionPowers[k], summand.torsion[k]);
+                count += summand.torsionPowers[k];
+            }
+        }
+
+        return new Homology(rank + homology.rank, torsions);
     }
 
     @Override
@@ -149,9 +205,10 @@ public final class Homology {
         }
 
         if (!isTorsionFree()) {
-            new TreeSet<>(torsion.keySet())
-                    .forEach(key -> description.append(key.intValue())
-                    .append('Z').append(torsion.get(key) != 1 ? "^" + torsion.get(key) : "").append('+'));
+            for (int k = 0; k < torsion.length; k++) {
+                description.append(torsion[k])
+                        .append('Z').append(torsionPowers[k] != 1 ? "^" + torsionPowers[k] : "").append('+');
+            }
             description.deleteCharAt(description.length() - 1);
         }
 
@@ -0,0 +1,111 @@
+package maths.homology;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Class holding cycles representing a basis of an homology group: free
+ * generators, and torsion generators with their orders. A cycle is given by
+ * its coordinates in the basis of the graded module.
+ *
+ * @author flo
+ */
+public final class HomologyGenerators {
+
+    private final int grad;
+    private final BigInteger[][] freeGenerators;
+    private final BigInteger[][] torsionGenerators;
+    private final int[] torsionOrders;
+
+    /**
+     * Creates the generators of an homology group.
+     *
+     * @param grad The graduation of the group.
+     * @param freeGenerators The cycles generating the free part.
+     * @param torsionGenerators The cycles generating the torsion part.
+     * @param torsionOrders The orders of the torsion generators, in
+     * increasing divisibility order.
+     */
+    HomologyGenerators(final int grad, final BigInteger[][] freeGenerators,
+            final BigInteger[][] torsionGenerators, final int[] torsionOrders) {
+        this.grad = grad;
+        this.freeGenerators = freeGenerators;
+        this.torsionGenerators = torsionGenerators;
+        this.torsionOrders = torsionOrders;
+    }
+
+    /**
+     * Returns the graduation of the homology group.
+     *
+     * @return The graduation.
+     */
+    public int getGrad() {
+        return grad;
+    }
+
+    /**
+     * Returns the cycles generating the free part of the homology group.
+     *
+     * @return The cycles, as many as the rank of the group.
+     */
+    public BigInteger[][] getFreeGenerators() {
+        return copy(freeGenerators);
+    }
+
+    /**
+     * Returns the cycles generating the torsion part of the homology group.
+     *
+     * @return The cycles, in the order of {@code getTorsionOrders}.
+     */
+    public BigInteger[][] getTorsionGenerators() {
+        return copy(torsionGenerators);
+    }
+
+    /**
+     * Returns the orders of the torsion generators.
+     *
+     * @return The orders, in increasing divisibility order.
+     */
+    public int[] getTorsionOrders() {
+        return torsionOrders.clone();
+    }
+
+    /**
+     * Returns the homology group generated.
+     *
+     * @return The homology group.
+     */
+    public Homology getHomology() {
+        return new Homology(freeGenerators.length, torsionOrders);
+    }
+
+    /**
+     * Copies an array of cycles.
+     *
+     * @param cycles The cycles.
+     *
+     * @return The copy.
+     */
+    private static BigInteger[][] copy(final BigInteger[][] cycles) {
+        final BigInteger[][] copy = new BigInteger[cycles.length][];
+        for (int k = 0; k < cycles.length; k++) {
+            copy[k] = cycles[k].clone();
+        }
+
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder generators = new StringBuilder(100);
+        generators.append(grad).append(" :");
+        for (final BigInteger[] cycle : freeGenerators) {
+            generators.append(' ').append(Arrays.toString(cycle));
+        }
+        for (int k = 0; k < torsionGenerators.length; k++) {
+            generators.append(' ').append(Arrays.toString(torsionGenerators[k])).append('/').append(torsionOrders[k]);
+        }
+
+        return generators.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package maths.homology;
+
+import maths.matrix.SNFSummary;
+
+/**
+ * Homology calculator working with ranks of the differentials. Each sparse
+ * differential is eliminated with {@code ±1} pivots only, in exact
+ * arithmetic: this gives its rank over the integers and over every prime
+ * field at once, and proves that all its invariant factors are one. Only the
+ * differentials this elimination can't clear are reduced with a Smith normal
+ * form, so the result is always the one of {@code SNFCalculator}.
+ *
+ * @author flo
+ */
+public final class ModularCalculator implements HomologyCalculator {
+
+    /**
+     * Creates a calculator.
+     */
+    public ModularCalculator() {
+    }
+
+    @Override
+    public GradedHomology calculateHomology(final DifferentialComplex complex) {
+        final int firstGrad = complex.getFirstGrad();
+        final int lastGrad = complex.getLastGrad();
+        final GradedHomology gradedHomology = new GradedHomology();
+
+        SNFSummary snf1 = SNFSummary.EMPTY;
+
+        for (int i = firstGrad; i <= lastGrad + 1; i++) {
+            final SNFSummary snf2 = complex.getSparseDiff(i).getRankSNFSummary();
+
+            gradedHomology.setHomologyAt(i, SNFCalculator.getHomology(snf1, snf2));
+
+            snf1 = snf2;
+        }
+
+        return gradedHomology;
+    }
+}
@@ -0,0 +1,76 @@
+package maths.homology;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import maths.matrix.SNFSummary;
+
+/**
+ * Homology calculator reducing all the differentials of a complex
+ * concurrently, the Smith normal forms of different grades being
+ * independent.
+ *
+ * @author flo
+ */
+public final class ParallelSNFCalculator implements HomologyCalculator {
+
+    private final SNFCalculator calculator;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a calculator reducing dense differentials in the common pool.
+     */
+    public ParallelSNFCalculator() {
+        this(false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a calculator.
+     *
+     * @param sparse {@code true} to reduce the differentials as sparse
+     * matrices.
+     * @param pool The pool running the reductions.
+     */
+    public ParallelSNFCalculator(final boolean sparse, final ForkJoinPool pool) {
+        calculator = new SNFCalculator(sparse);
+        this.pool = pool;
+    }
+
+    @Override
+    public GradedHomology calculateHomology(final DifferentialComplex complex) {
+        final int firstGrad = complex.getFirstGrad();
+        final int lastGrad = complex.getLastGrad();
+        final GradedHomology gradedHomology = new GradedHomology();
+
+        if (complex.isEmpty()) {
+            return gradedHomology;
+        }
+
+        final List<ForkJoinTask<SNFSummary>> tasks = new ArrayList<>(lastGrad - firstGrad + 1);
+        for (int i = firstGrad; i <= lastGrad; i++) {
+            final int grad = i;
+            tasks.add(pool.submit(() -> calculator.getSNFSummary(complex, grad)));
+        }
+
+        SNFSummary snf1 = SNFSummary.EMPTY;
+        for (int i = firstGrad; i <= lastGrad + 1; i++) {
+            final SNFSummary snf2 = i <= lastGrad ? tasks.get(i - firstGrad).join() : SNFSummary.EMPTY;
+
+            gradedHomology.setHomologyAt(i, SNFCalculator.getHomology(snf1, snf2));
+
+            snf1 = snf2;
+        }
+
+        return gradedHomology;
+    }
+
+    /**
+     * Returns the number of threads used by the calculator.
+     *
+     * @return The parallelism of the pool.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+}
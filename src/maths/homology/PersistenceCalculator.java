@@ -0,0 +1,230 @@
+package maths.homology;
+
+import java.util.Arrays;
+import maths.exceptions.MathsArgumentException;
+import maths.matrix.SparseIntegerMatrix;
+import maths.numbers.IntegerCalc;
+
+/**
+ * Class computing the barcode of a filtered differential complex over the
+ * field with {@code p} elements, by the standard column reduction of the
+ * differentials with the generators sorted by level. A differential
+ * {@code d_i} only has entries in graduation {@code i+1}, so each
+ * differential is reduced on its own, in increasing graduation order. The
+ * generators of graduation {@code i+1} found as pivots of {@code d_i} have a
+ * null reduced column in {@code d_i+1}, which is therefore cleared without
+ * being reduced.
+ *
+ * @author flo
+ */
+public final class PersistenceCalculator {
+
+    private final int prime;
+
+    /**
+     * Creates a calculator working over the field with two elements.
+     */
+    public PersistenceCalculator() {
+        prime = 2;
+    }
+
+    /**
+     * Creates a calculator.
+     *
+     * @param prime The characteristic of the field.
+     *
+     * @throws MathsArgumentException If {@code prime} is not a positive
+     * prime.
+     */
+    public PersistenceCalculator(final int prime) throws MathsArgumentException {
+        if (prime <= 0 || !IntegerCalc.isPrime(prime)) {
+            throw new MathsArgumentException("The modulus must be a positive prime.");
+        }
+
+        this.prime = prime;
+    }
+
+    /**
+     * Calculates the barcode of a filtered differential complex.
+     *
+     * @param filtered The filtered complex.
+     *
+     * @return The barcode, without the bars of length zero.
+     *
+     * @throws MathsArgumentException If the levels don't define a filtration
+     * by subcomplexes.
+     */
+    public Barcode calculateBarcode(final FilteredComplex filtered) throws MathsArgumentException {
+        final DifferentialComplex complex = filtered.getComplex();
+        final Barcode barcode = new Barcode();
+        if (complex.isEmpty()) {
+            return barcode;
+        }
+
+        final int lastGrad = complex.getLastGrad();
+        int[] levels = filtered.getLevels(complex.getFirstGrad());
+        boolean[] cleared = new boolean[levels.length];
+
+        for (int i = complex.getFirstGrad(); i <= lastGrad + 1; i++) {
+            final int[] nextLevels = i <= lastGrad ? filtered.getLevels(i + 1) : new int[0];
+            final boolean[] nextCleared = new boolean[nextLevels.length];
+            final SparseIntegerMatrix diff = i <= lastGrad ? complex.getSparseDiff(i) : SparseIntegerMatrix.EMPTY;
+            final Reduction reduction = new Reduction(nextLevels);
+
+            for (final int c : sortByLevel(levels)) {
+                if (cleared[c]) {
+                    continue;
+                }
+
+                final int low = c < diff.getColumnNbr() ? reduction.reduce(c, diff, levels[c]) : -1;
+                if (low == -1) {
+                    barcode.addBar(i, levels[c], Barcode.INFINITY);
+                } else {
+                    nextCleared[low] = true;
+                    if (nextLevels[low] < levels[c]) {
+                        barcode.addBar(i + 1, nextLevels[low], levels[c]);
+                    }
+                }
+            }
+
+            levels = nextLevels;
+            cleared = nextCleared;
+        }
+
+        return barcode;
+    }
+
+    /**
+     * Gives the generators sorted by increasing level, then increasing index.
+     *
+     * @param levels The level of each generator.
+     *
+     * @return The generators in filtration order.
+     */
+    private static int[] sortByLevel(final int[] levels) {
+        final long[] keys = new long[levels.length];
+        for (int k = 0; k < levels.length; k++) {
+            keys[k] = (long) levels[k] << 32 | k;
+        }
+        Arrays.sort(keys);
+
+        final int[] order = new int[levels.length];
+        for (int k = 0; k < levels.length; k++) {
+            order[k] = (int) keys[k];
+        }
+
+        return order;
+    }
+
+    /**
+     * Column reduction of one differential, its rows being ranked by their
+     * filtration order.
+     */
+    private final class Reduction {
+
+        private final int[] rankToRow;
+        private final int[] rowToRank;
+        private final int[] levels;
+        private final int[][] pivotRanks;
+        private final int[][] pivotValues;
+
+        /**
+         * Creates the reduction of a differential.
+         *
+         * @param levels The levels of the generators of the target module.
+         */
+        private Reduction(final int[] levels) {
+            this.levels = levels;
+            rankToRow = sortByLevel(levels);
+            rowToRank = new int[levels.length];
+            for (int k = 0; k < rankToRow.length; k++) {
+                rowToRank[rankToRow[k]] = k;
+            }
+            pivotRanks = new int[levels.length][];
+            pivotValues = new int[levels.length][];
+        }
+
+        /**
+         * Reduces a column with the columns already reduced.
+         *
+         * @param c The column index.
+         * @param diff The differential.
+         * @param level The level of the column generator.
+         *
+         * @return The row of the pivot of the reduced column, {@code -1} if
+         * it is null.
+         *
+         * @throws MathsArgumentException If a row has a greater level than
+         * the column.
+         */
+        private int reduce(final int c, final SparseIntegerMatrix diff, final int level)
+                throws MathsArgumentException {
+            final int[] indices = diff.getColumnIndices(c);
+            final int[] values = diff.getColumnValues(c);
+            final long[] keys = new long[indices.length];
+            int size = 0;
+            for (int k = 0; k < indices.length; k++) {
+                if (levels[indices[k]] > level) {
+                    throw new MathsArgumentException("The levels don't define a filtration by subcomplexes.");
+                }
+                final int val = Math.floorMod(values[k], prime);
+                if (val != 0) {
+                    keys[size++] = (long) rowToRank[indices[k]] << 32 | val;
+                }
+            }
+            Arrays.sort(keys, 0, size);
+
+            int[] ranks = new int[size];
+            int[] vals = new int[size];
+            for (int k = 0; k < size; k++) {
+                ranks[k] = (int) (keys[k] >>> 32);
+                vals[k] = (int) keys[k];
+            }
+
+            while (size > 0 && pivotRanks[ranks[size - 1]] != null) {
+                final int low = ranks[size - 1];
+                final int[] otherRanks = pivotRanks[low];
+                final int[] otherValues = pivotValues[low];
+                final long inverse = Math.floorMod(
+                        IntegerCalc.extendedEuclid(otherValues[otherValues.length - 1], (long) prime)[1], prime);
+                final long factor = prime - vals[size - 1] * inverse % prime;
+
+                final int[] mergedRanks = new int[size + otherRanks.length];
+                final int[] mergedValues = new int[size + otherRanks.length];
+                int k1 = 0, k2 = 0, merged = 0;
+                while (k1 < size || k2 < otherRanks.length) {
+                    final int rank;
+                    final long val;
+                    if (k2 == otherRanks.length || k1 < size && ranks[k1] < otherRanks[k2]) {
+                        rank = ranks[k1];
+                        val = vals[k1++];
+                    } else if (k1 == size || otherRanks[k2] < ranks[k1]) {
+                        rank = otherRanks[k2];
+                        val = factor * otherValues[k2++] % prime;
+                    } else {
+                        rank = ranks[k1];
+                        val = (vals[k1++] + factor * otherValues[k2++]) % prime;
+                    }
+                    if (val != 0) {
+                        mergedRanks[merged] = rank;
+                        mergedValues[merged++] = (int) val;
+                    }
+                }
+
+                ranks = mergedRanks;
+                vals = mergedValues;
+                size = merged;
+            }
+
+            if (size == 0) {
+                return -1;
+            }
+
+            final int low = ranks[size - 1];
+            pivotRanks[low] = Arrays.copyOf(ranks, size);
+            pivotValues[low] = Arrays.copyOf(vals, size);
+
+            return rankToRow[low];
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package maths.homology;
+
+/**
+ * Homology calculator reducing the complex before handing it to another
+ * calculator. The pairs of generators linked by a unit entry of a
+ * differential are removed first, which usually shrinks boundary matrices a
+ * lot, so the Smith normal forms are computed on much smaller matrices.
+ *
+ * @author flo
+ */
+public final class ReducingCalculator implements HomologyCalculator {
+
+    private final HomologyCalculator calculator;
+
+    /**
+     * Creates a calculator reducing the complex before computing its homology
+     * with sparse Smith normal forms.
+     */
+    public ReducingCalculator() {
+        this(new SNFCalculator(true));
+    }
+
+    /**
+     * Creates a calculator.
+     *
+     * @param calculator The calculator used on the reduced complex.
+     */
+    public ReducingCalculator(final HomologyCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    @Override
+    public GradedHomology calculateHomology(final DifferentialComplex complex) {
+        return calculator.calculateHomology(complex.getReducedComplex());
+    }
+}
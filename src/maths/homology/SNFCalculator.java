@@ -1,6 +1,15 @@
 package maths.homology;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import maths.matrix.IntegerMatrix;
+import maths.matrix.PivotStrategy;
+import maths.matrix.SNFDecomposition;
+import maths.matrix.SNFSummary;
 
 /**
  *
@@ -8,7 +17,33 @@ import maths.matrix.IntegerMatrix;
  */
 public final class SNFCalculator implements HomologyCalculator {
 
+    private final boolean sparse;
+    private final PivotStrategy strategy;
+
     public SNFCalculator() {
+        this(false);
+    }
+
+    /**
+     * Creates a calculator.
+     *
+     * @param sparse {@code true} to reduce the differentials as sparse
+     * matrices, which is much faster and lighter for boundary matrices with
+     * few non zero entries per column.
+     */
+    public SNFCalculator(final boolean sparse) {
+        this.sparse = sparse;
+        strategy = PivotStrategy.SMALLEST;
+    }
+
+    /**
+     * Creates a calculator reducing the differentials as sparse matrices.
+     *
+     * @param strategy The strategy choosing the pivots of the elimination.
+     */
+    public SNFCalculator(final PivotStrategy strategy) {
+        sparse = true;
+        this.strategy = strategy;
     }
 
     @Override
@@ -17,48 +52,139 @@ public final class SNFCalculator implements HomologyCalculator {
         final int lastGrad = complex.getLastGrad();
         final GradedHomology gradedHomology = new GradedHomology();
 
-        int rank1, rank2, length1, length2, torsion;
-        IntegerMatrix mat1, mat2;
-
-        mat1 = IntegerMatrix.EMPTY;
+        SNFSummary snf1 = SNFSummary.EMPTY;
 
         for (int i = firstGrad; i <= lastGrad + 1; i++) {
-            torsion = 0;
-            mat2 = complex.getDiff(i).toSNF();
-
-            length1 = Math.min(mat1.getRowNbr(), mat1.getColumnNbr());
-            rank1 = length1;
-            for (int j = 0; j < length1; j++) {
-                final int val = mat1.getij(j, j);
-                if (val == 0) {
-                    rank1 = j;
-                    break;
-                } else if (val > 1) {
-                    torsion++;
-                }
+            final SNFSummary snf2 = getSNFSummary(complex, i);
+
+            gradedHomology.setHomologyAt(i, getHomology(snf1, snf2));
+
+            snf1 = snf2;
+        }
+
+        return gradedHomology;
+    }
+
+    /**
+     * Streams the generators of the homology of a differential complex, grade
+     * by grade. Each grade is computed when the stream reaches it, so only
+     * the differentials of one grade are reduced at a time.
+     *
+     * @param complex The differential complex.
+     *
+     * @return A {@code Stream<HomologyGenerators>} in increasing graduation
+     * order.
+     *
+     * @throws ArithmeticException When the stream is consumed, if the
+     * {@code long} arithmetic of a reduction overflows, or if the
+     * coordinates of a boundary in the basis of cycles don't fit in an
+     * {@code int}.
+     */
+    public Stream<HomologyGenerators> streamGenerators(final DifferentialComplex complex) {
+        if (complex.isEmpty()) {
+            return Stream.empty();
+        }
+
+        return IntStream.rangeClosed(complex.getFirstGrad(), complex.getLastGrad() + 1)
+                .mapToObj(grad -> getGenerators(complex, grad));
+    }
+
+    /**
+     * Gives cycles generating the homology of a differential complex at one
+     * graduation. The kernel of the outgoing differential {@code d_i} is
+     * spanned by the last columns of {@code V} in its Smith normal form
+     * {@code U.d_i.V}, the image of the incoming differential is written in
+     * this basis of cycles and the Smith normal form of the result gives the
+     * generators of the quotient.
+     *
+     * @param complex The differential complex.
+     * @param grad The graduation.
+     *
+     * @return The generators.
+     *
+     * @throws ArithmeticException If the {@code long} arithmetic of a
+     * reduction overflows, or if the coordinates of a boundary in the basis
+     * of cycles don't fit in an {@code int}.
+     */
+    public HomologyGenerators getGenerators(final DifferentialComplex complex, final int grad) {
+        final IntegerMatrix incoming = complex.getDiff(grad - 1);
+        final IntegerMatrix outgoing = complex.getDiff(grad);
+        final int dimension = outgoing.isEmpty() ? incoming.getRowNbr() : outgoing.getColumnNbr();
+
+        final SNFDecomposition cycles = outgoing.isEmpty() ? null : new SNFDecomposition(outgoing);
+        final int cycleRank = cycles == null ? 0 : cycles.getRank();
+        final int cycleNbr = dimension - cycleRank;
+
+        final int boundaryNbr = incoming.isEmpty() ? 0 : incoming.getColumnNbr();
+        final int[][] boundaries = new int[cycleNbr][boundaryNbr];
+        for (int j = 0; j < boundaryNbr; j++) {
+            BigInteger[] boundary = new BigInteger[dimension];
+            for (int i = 0; i < dimension; i++) {
+                boundary[i] = BigInteger.valueOf(incoming.getij(i, j));
             }
+            if (cycles != null) {
+                boundary = cycles.applyVInverse(boundary);
+            }
+            for (int k = 0; k < cycleNbr; k++) {
+                boundaries[k][j] = boundary[cycleRank + k].intValueExact();
+            }
+        }
+
+        final SNFDecomposition quotient = new SNFDecomposition(new IntegerMatrix(boundaries));
+        final long[] factors = quotient.getInvariantFactors();
 
-            length2 = Math.min(mat2.getRowNbr(), mat2.getColumnNbr());
-            rank2 = length2;
-            for (int j = 0; j < length2; j++) {
-                if (mat2.getij(j, j) == 0) {
-                    rank2 = j;
-                    break;
-                }
+        final List<BigInteger[]> freeGenerators = new ArrayList<>();
+        final List<BigInteger[]> torsionGenerators = new ArrayList<>();
+        final int[] torsionOrders = new int[factors.length];
+        int torsionNbr = 0;
+        for (int k = 0; k < cycleNbr; k++) {
+            if (k < factors.length && factors[k] == 1) {
+                continue;
             }
 
-            final int[] tor = new int[torsion];
-            for (int j = rank1 - torsion; j < rank1; j++) {
-                tor[j - rank1 + torsion] = mat1.getij(j, j);
+            BigInteger[] cycle = new BigInteger[dimension];
+            Arrays.fill(cycle, BigInteger.ZERO);
+            System.arraycopy(quotient.getBigUInverseColumn(k), 0, cycle, cycleRank, cycleNbr);
+            if (cycles != null) {
+                cycle = cycles.applyV(cycle);
             }
 
-            final Homology homology = new Homology(mat2.getColumnNbr() - rank1 - rank2, tor);
+            if (k < factors.length) {
+                torsionGenerators.add(cycle);
+                torsionOrders[torsionNbr++] = Math.toIntExact(factors[k]);
+            } else {
+                freeGenerators.add(cycle);
+            }
+        }
 
-            gradedHomology.setHomologyAt(i, homology);
+        return new HomologyGenerators(grad, freeGenerators.toArray(new BigInteger[0][]),
+                torsionGenerators.toArray(new BigInteger[0][]), Arrays.copyOf(torsionOrders, torsionNbr));
+    }
 
-            mat1 = mat2;
-        }
+    /**
+     * Gives the summary of the Smith normal form of one differential.
+     *
+     * @param complex The differential complex.
+     * @param grad The graduation of the differential.
+     *
+     * @return The summary of the Smith normal form.
+     */
+    SNFSummary getSNFSummary(final DifferentialComplex complex, final int grad) {
+        return sparse ? complex.getSparseDiff(grad).getSNFSummary(strategy) : complex.getDiff(grad).getSNFSummary();
+    }
 
-        return gradedHomology;
+    /**
+     * Gives the homology group at one graduation from the Smith normal forms
+     * of the differentials arriving at and leaving from it.
+     *
+     * @param snf1 The summary of the incoming differential.
+     * @param snf2 The summary of the outgoing differential.
+     *
+     * @return The homology group.
+     */
+    static Homology getHomology(final SNFSummary snf1, final SNFSummary snf2) {
+        final int dimension = snf2.isEmpty() ? snf1.getRowNbr() : snf2.getColumnNbr();
+
+        return new Homology(dimension - snf1.getRank() - snf2.getRank(), snf1.getTorsion());
     }
 }
@@ -0,0 +1,133 @@
+package maths.homology;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import maths.exceptions.MathsArgumentException;
+
+/**
+ * Spectral sequence of a bigraded differential complex filtered by its j
+ * graduation. The page {@code E1} is the homology of the j graduated
+ * complexes, each reduced on its own. A {@code DifferentialBiComplex} only
+ * holds the differentials of degree (1,0), so the differentials of all the
+ * pages from {@code E1} on are null: the spectral sequence degenerates at
+ * {@code E1} and the total homology is the sum of {@code E1} along the
+ * antidiagonals, without any extension problem. The total complex is never
+ * built. The homology of each j graduated complex is kept with the version
+ * of the complex, and computed again only once the complex is set or
+ * modified.
+ *
+ * @author flo
+ */
+public final class SpectralSequence {
+
+    private final DifferentialBiComplex biComplex;
+    private final HomologyCalculator calculator;
+    private final GradedArray<DifferentialComplex> complexes = new GradedArray<>();
+    private final GradedArray<Long> versions = new GradedArray<>();
+    private final GradedArray<GradedHomology> rows = new GradedArray<>();
+
+    /**
+     * Creates the spectral sequence of a bigraded differential complex.
+     *
+     * @param biComplex The bigraded differential complex.
+     * @param calculator The {@code Calculator} used to compute {@code E1}.
+     */
+    public SpectralSequence(final DifferentialBiComplex biComplex, final HomologyCalculator calculator) {
+        this.biComplex = biComplex;
+        this.calculator = calculator;
+    }
+
+    /**
+     * Returns a page of the spectral sequence, {@code E1} being computed
+     * again for the j graduations whose complex changed since the last call.
+     *
+     * @param page The index {@code r} of the page {@code Er}.
+     *
+     * @return The page, as a bigraded homology.
+     *
+     * @throws MathsArgumentException If {@code page} is less than one.
+     */
+    public BiGradedHomology getPage(final int page) throws MathsArgumentException {
+        if (page < 1) {
+            throw new MathsArgumentException("The pages start at E1.");
+        }
+
+        return getFirstPage();
+    }
+
+    /**
+     * Returns the index of the page from which the spectral sequence is
+     * constant.
+     *
+     * @return The degeneration page index.
+     */
+    public int getDegenerationPage() {
+        return 1;
+    }
+
+    /**
+     * Returns the homology of the total complex, graded by {@code i + j}.
+     *
+     * @return The total homology.
+     */
+    public GradedHomology getTotalHomology() {
+        final BiGradedHomology limitPage = getFirstPage();
+        final GradedArray<Homology> total = new GradedArray<>();
+        for (final int jGrad : limitPage.getNotNulljGrads()) {
+            final GradedHomology row = limitPage.getjGradedHomology(jGrad);
+            for (final int iGrad : row.getNotNullGrads()) {
+                final int grad = Math.addExact(iGrad, jGrad);
+                total.put(grad, total.getOrDefault(grad, Homology.NULL_HOMOLOGY).directSum(row.getHomologyAt(iGrad)));
+            }
+        }
+
+        final GradedHomology totalHomology = new GradedHomology();
+        for (final int grad : total.keys()) {
+            totalHomology.setHomologyAt(grad, total.get(grad));
+        }
+
+        return totalHomology;
+    }
+
+    /**
+     * Returns {@code E1}, computing in parallel the homology of the j
+     * graduated complexes which were replaced or modified since the last
+     * call.
+     *
+     * @return The first page.
+     */
+    private synchronized BiGradedHomology getFirstPage() {
+        final int[] jGrads = biComplex.getNotNulljGrads();
+        for (final int jGrad : complexes.keys()) {
+            if (Arrays.binarySearch(jGrads, jGrad) < 0) {
+                complexes.remove(jGrad);
+                versions.remove(jGrad);
+                rows.remove(jGrad);
+            }
+        }
+
+        final int[] changed = new int[jGrads.length];
+        int changedNbr = 0;
+        for (final int jGrad : jGrads) {
+            final DifferentialComplex complex = biComplex.getDiff(jGrad);
+            final long version = complex.getVersion();
+            if (complexes.get(jGrad) != complex || versions.get(jGrad) != version) {
+                complexes.put(jGrad, complex);
+                versions.put(jGrad, version);
+                changed[changedNbr++] = jGrad;
+            }
+        }
+        final Map<Integer, GradedHomology> homologies = IntStream.of(changed).limit(changedNbr).parallel().boxed()
+                .collect(Collectors.toMap(jGrad -> jGrad, jGrad -> complexes.get(jGrad).getHomology(calculator)));
+        homologies.forEach(rows::put);
+
+        final BiGradedHomology firstPage = new BiGradedHomology();
+        for (final int jGrad : jGrads) {
+            firstPage.setHomologyAt(jGrad, rows.get(jGrad));
+        }
+
+        return firstPage;
+    }
+}
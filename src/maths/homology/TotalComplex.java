@@ -0,0 +1,138 @@
+package maths.homology;
+
+import maths.matrix.SparseIntegerMatrix;
+
+/**
+ * View of the total complex of a bigraded differential complex: the module at
+ * graduation {@code n} is the sum of the modules at the bigraduations
+ * {@code (n-j,j)}, in increasing j order. A {@code DifferentialBiComplex}
+ * only holds the differentials of degree (1,0), which need no sign twist, so
+ * the total differential {@code D_n} is block diagonal with the blocks
+ * {@code d_n-j,j}. Nothing is stored: each differential is assembled when
+ * asked for. The blocks set as sparse matrices are shared without copying
+ * their values, but the blocks set as {@code IntegerMatrix} are converted to
+ * new sparse matrices on each call.
+ *
+ * @author flo
+ */
+public final class TotalComplex {
+
+    private final DifferentialBiComplex biComplex;
+
+    /**
+     * Creates the total complex of a bigraded differential complex.
+     *
+     * @param biComplex The bigraded differential complex.
+     */
+    TotalComplex(final DifferentialBiComplex biComplex) {
+        this.biComplex = biComplex;
+    }
+
+    /**
+     * Returns the differential at a certain graduation as a sparse matrix.
+     * Its dense blocks are copied, the sparse ones are shared.
+     *
+     * @param grad The graduation.
+     *
+     * @return The sparse block diagonal matrix.
+     */
+    public SparseIntegerMatrix getSparseDiff(final int grad) {
+        final int[] jGrads = biComplex.getNotNulljGrads();
+        final SparseIntegerMatrix[] blocks = new SparseIntegerMatrix[jGrads.length];
+        boolean empty = true;
+
+        for (int k = 0; k < jGrads.length; k++) {
+            final DifferentialComplex complex = biComplex.getDiff(jGrads[k]);
+            final int iGrad = grad - jGrads[k];
+            final SparseIntegerMatrix block = complex.getSparseDiff(iGrad);
+            blocks[k] = block.isEmpty()
+                    ? SparseIntegerMatrix.getEmpty(complex.getDimension(iGrad + 1), complex.getDimension(iGrad))
+                    : block;
+            empty &= blocks[k].isEmpty();
+        }
+
+        return empty ? SparseIntegerMatrix.EMPTY : SparseIntegerMatrix.blockDiagonal(blocks);
+    }
+
+    /**
+     * Gives the dimension of the module at a certain graduation.
+     *
+     * @param grad The graduation.
+     *
+     * @return The dimension.
+     */
+    public int getDimension(final int grad) {
+        int dimension = 0;
+        for (final int jGrad : biComplex.getNotNulljGrads()) {
+            dimension += biComplex.getDiff(jGrad).getDimension(grad - jGrad);
+        }
+
+        return dimension;
+    }
+
+    /**
+     * Returns the differential complex holding the total differentials, as
+     * sparse matrices.
+     *
+     * @return The differential complex.
+     */
+    public DifferentialComplex toDifferentialComplex() {
+        final DifferentialComplex complex = new DifferentialComplex();
+        for (int grad = getFirstGrad(); grad <= getLastGrad(); grad++) {
+            complex.setiDiffAt(grad, getSparseDiff(grad));
+        }
+
+        return complex;
+    }
+
+    /**
+     * Returns the graded homology of the total complex.
+     *
+     * @param calculator The {@code Calculator} used to calculate the homology.
+     *
+     * @return The graded homology.
+     */
+    public GradedHomology getHomology(final HomologyCalculator calculator) {
+        return calculator.calculateHomology(toDifferentialComplex());
+    }
+
+    /**
+     * Returns the first graduation with non null differential or
+     * {@code Integer.MAX_VALUE} if none.
+     *
+     * @return The graduation.
+     */
+    public int getFirstGrad() {
+        int firstGrad = Integer.MAX_VALUE;
+        for (final int jGrad : biComplex.getNotNulljGrads()) {
+            firstGrad = Math.min(firstGrad, biComplex.getDiff(jGrad).getFirstGrad() + jGrad);
+        }
+
+        return firstGrad;
+    }
+
+    /**
+     * Returns the last graduation with non null differential or
+     * {@code Integer.MIN_VALUE} if none.
+     *
+     * @return The graduation.
+     */
+    public int getLastGrad() {
+        int lastGrad = Integer.MIN_VALUE;
+        for (final int jGrad : biComplex.getNotNulljGrads()) {
+            lastGrad = Math.max(lastGrad, biComplex.getDiff(jGrad).getLastGrad() + jGrad);
+        }
+
+        return lastGrad;
+    }
+
+    /**
+     * Tells if the total complex is empty.
+     *
+     * @return {@code true} if the total complex is empty, {@code false}
+     * otherwise.
+     */
+    public boolean isEmpty() {
+        return biComplex.isEmpty();
+    }
+}
@@ -0,0 +1,138 @@
+package maths.matrix;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Product of two row-major {@code int} matrices. The right operand is read by
+ * tiles of {@code BLOCK_K} rows and {@code BLOCK_J} columns which stay in
+ * cache while a band of rows of the left operand is multiplied with them. Big
+ * products are split in bands of rows computed in the common pool.
+ *
+ * @author flo
+ */
+final class BlockedProduct extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int BLOCK_K = 64;
+    private static final int BLOCK_J = 512;
+
+    /**
+     * Number of multiply-adds under which the product is computed in the
+     * calling thread.
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 21;
+
+    /**
+     * Number of rows under which a band isn't split any more.
+     */
+    private static final int MIN_BAND = 16;
+
+    private final int[] left, right, product;
+    private final int columns, pcolumn;
+    private final int firstRow, lastRow;
+
+    /**
+     * Creates the task computing a band of rows of the product.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @param product The array receiving the product.
+     * @param columns The number of columns of the left operand.
+     * @param pcolumn The number of columns of the right operand.
+     * @param firstRow The first row of the band.
+     * @param lastRow The row following the band.
+     */
+    private BlockedProduct(final int[] left, final int[] right, final int[] product, final int columns,
+            final int pcolumn, final int firstRow, final int lastRow) {
+        this.left = left;
+        this.right = right;
+        this.product = product;
+        this.columns = columns;
+        this.pcolumn = pcolumn;
+        this.firstRow = firstRow;
+        this.lastRow = lastRow;
+    }
+
+    /**
+     * Multiplies two row-major matrices.
+     *
+     * @param left The left operand.
+     * @param rows The number of rows of the left operand.
+     * @param columns The number of columns of the left operand.
+     * @param right The right operand, with {@code columns} rows.
+     * @param pcolumn The number of columns of the right operand.
+     *
+     * @return The row-major product.
+     */
+    static int[] multiply(final int[] left, final int rows, final int columns, final int[] right,
+            final int pcolumn) {
+        final int[] product = new int[rows * pcolumn];
+        multiply(left, rows, columns, right, pcolumn, product);
+
+        return product;
+    }
+
+    /**
+     * Multiplies two row-major matrices in a given array.
+     *
+     * @param left The left operand.
+     * @param rows The number of rows of the left operand.
+     * @param columns The number of columns of the left operand.
+     * @param right The right operand, with {@code columns} rows.
+     * @param pcolumn The number of columns of the right operand.
+     * @param product The array receiving the row-major product, of length
+     * {@code rows * pcolumn} and distinct from both operands.
+     */
+    static void multiply(final int[] left, final int rows, final int columns, final int[] right,
+            final int pcolumn, final int[] product) {
+        Arrays.fill(product, 0);
+        final BlockedProduct task = new BlockedProduct(left, right, product, columns, pcolumn, 0, rows);
+
+        if ((long) rows * columns * pcolumn < PARALLEL_THRESHOLD) {
+            task.multiplyBand();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    @Override
+    protected void compute() {
+        final int bandSize = lastRow - firstRow;
+        if (bandSize < 2 * MIN_BAND || (long) bandSize * columns * pcolumn < PARALLEL_THRESHOLD) {
+            multiplyBand();
+        } else {
+            final int middle = firstRow + bandSize / 2;
+            invokeAll(new BlockedProduct(left, right, product, columns, pcolumn, firstRow, middle),
+                    new BlockedProduct(left, right, product, columns, pcolumn, middle, lastRow));
+        }
+    }
+
+    /**
+     * Computes the rows of the band, tile by tile of the right operand.
+     */
+    private void multiplyBand() {
+        for (int kk = 0; kk < columns; kk += BLOCK_K) {
+            final int kEnd = Math.min(kk + BLOCK_K, columns);
+            for (int jj = 0; jj < pcolumn; jj += BLOCK_J) {
+                final int jEnd = Math.min(jj + BLOCK_J, pcolumn);
+                for (int i = firstRow; i < lastRow; i++) {
+                    final int leftOffset = i * columns;
+                    final int productOffset = i * pcolumn;
+                    for (int k = kk; k < kEnd; k++) {
+                        final int val = left[leftOffset + k];
+                        if (val == 0) {
+                            continue;
+                        }
+                        final int rightOffset = k * pcolumn;
+                        for (int j = jj; j < jEnd; j++) {
+                            product[productOffset + j] += val * right[rightOffset + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
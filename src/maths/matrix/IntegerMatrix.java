@@ -1,5 +1,6 @@
 package maths.matrix;
 
+import java.math.BigInteger;
 import java.util.Arrays;
 import maths.exceptions.MathsArgumentException;
 import maths.exceptions.MathsIllegalOperationException;
@@ -12,13 +13,23 @@ import maths.numbers.IntegerCalc;
  */
 public final class IntegerMatrix {
 
-    public static final IntegerMatrix EMPTY = new IntegerMatrix(new int[][]{});
+    public static final IntegerMatrix EMPTY = new IntegerMatrix(new int[0], 0, 0);
 
-    private final int[][] matrix;
+    /**
+     * Side of the square tiles moved at once by the transposition.
+     */
+    private static final int TRANSPOSE_TILE = 32;
+
+    /**
+     * The elements in row-major order, the row stride being the number of
+     * columns.
+     */
+    private final int[] matrix;
     private final int columns, rows;
 
     /**
-     * Create a matrix from a bidimentional array of {@code int}.
+     * Create a matrix from a bidimentional array of {@code int}. The rows are
+     * copied in a row-major array.
      *
      * @param matrix The array for initialization.
      */
@@ -30,81 +41,186 @@ public final class IntegerMatrix {
             columns = matrix[0].length;
         }
 
+        this.matrix = new int[rows * columns];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(matrix[i], 0, this.matrix, i * columns, columns);
+        }
+    }
+
+    /**
+     * Create a matrix from an array of {@code int} holding its elements in
+     * row-major order, the (i,j) element being at index
+     * {@code i * columns + j}. The array is copied.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param matrix The array for initialization.
+     *
+     * @throws MathsArgumentException If a size is negative or if the length
+     * of the array is not {@code rows * columns}.
+     */
+    public IntegerMatrix(final int rows, final int columns, final int[] matrix) throws MathsArgumentException {
+        if (rows < 0 || columns < 0) {
+            throw new MathsArgumentException("The sizes of a matrix can't be negative.");
+        }
+        if ((long) rows * columns != matrix.length) {
+            throw new MathsArgumentException("The array length doesn't match the matrix size.");
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.matrix = matrix.clone();
+    }
+
+    /**
+     * Create a matrix from a row-major array without any check. The array is
+     * not copied.
+     *
+     * @param matrix The array, of length {@code rows * columns}.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     */
+    IntegerMatrix(final int[] matrix, final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
         this.matrix = matrix;
     }
 
     /**
-     * Exchanges two rows in a matrix.
+     * Exchanges two rows in a row-major matrix.
      *
      * @param mat The matrix.
+     * @param columns The number of columns of the matrix.
      * @param row1 The first row index.
      * @param row2 The second row index.
      */
-    private static void exchangeRows(final int mat[][], final int row1, final int row2) {
-        final int temp[] = mat[row1];
-        mat[row1] = mat[row2];
-        mat[row2] = temp;
+    private static void exchangeRows(final int[] mat, final int columns, final int row1, final int row2) {
+        final int offset1 = row1 * columns;
+        final int offset2 = row2 * columns;
+        for (int l = 0; l < columns; l++) {
+            final int temp = mat[offset1 + l];
+            mat[offset1 + l] = mat[offset2 + l];
+            mat[offset2 + l] = temp;
+        }
     }
 
     /**
-     * Exchanges two columns in a matrix.
+     * Exchanges two columns in a row-major matrix.
      *
      * @param mat The matrix.
-     * @param row1 The first column index.
-     * @param row2 The second column index.
+     * @param columns The number of columns of the matrix.
+     * @param column1 The first column index.
+     * @param column2 The second column index.
      */
-    private static void exchangeColumns(final int mat[][], final int column1, final int column2) {
-        final int rowNbr = mat.length;
-        int temp;
-        for (int k = 0; k < rowNbr; k++) {
-            temp = mat[k][column1];
-            mat[k][column1] = mat[k][column2];
-            mat[k][column2] = temp;
+    private static void exchangeColumns(final int[] mat, final int columns, final int column1, final int column2) {
+        for (int k = 0; k < mat.length; k += columns) {
+            final int temp = mat[k + column1];
+            mat[k + column1] = mat[k + column2];
+            mat[k + column2] = temp;
         }
     }
 
     /**
-     * Adds an integer multiple of a row to another in a matrix.
+     * Adds an integer multiple of a row to another in a row-major matrix.
+     * When a bound on the elements shows that nothing can overflow, the
+     * elements are combined by a plain loop which the JIT compiler turns into
+     * SIMD instructions, the checked loop being used otherwise.
      *
      * @param mat The matrix.
+     * @param columns The number of columns of the matrix.
      * @param row1 The row index in wich we add a multiple of the second one.
      * @param row2 The second row index.
      * @param k The integer.
+     *
+     * @throws ArithmeticException If the {@code int} arithmetic overflows.
      */
-    private static void addRow(int[][] mat, final int row1, final int row2, final int k) {
-        final int columnsNbr = mat[0].length;
-        for (int l = 0; l < columnsNbr; l++) {
-            mat[row1][l] += k * mat[row2][l];
+    private static void addRow(final int[] mat, final int columns, final int row1, final int row2, final int k) {
+        final int offset1 = row1 * columns;
+        final int offset2 = row2 * columns;
+        final int bound1 = getBound(mat, offset1, columns);
+        final int bound2 = getBound(mat, offset2, columns);
+
+        if (bound1 >= 0 && bound2 >= 0 && k != Integer.MIN_VALUE
+                && (long) Math.abs(k) * bound2 + bound1 <= Integer.MAX_VALUE) {
+            for (int l = 0; l < columns; l++) {
+                mat[offset1 + l] += k * mat[offset2 + l];
+            }
+        } else {
+            for (int l = 0; l < columns; l++) {
+                mat[offset1 + l] = Math.addExact(mat[offset1 + l], Math.multiplyExact(k, mat[offset2 + l]));
+            }
         }
     }
 
     /**
-     * Adds an integer multiple of a column to another in a matrix.
+     * Gives a bound on the absolute values of consecutive elements, as the
+     * bitwise or of these absolute values.
      *
      * @param mat The matrix.
-     * @param column1 The column index in wich we add a multiple of the second
-     * one.
-     * @param column2 The column row index.
-     * @param k The integer.
+     * @param offset The index of the first element.
+     * @param length The number of elements.
+     *
+     * @return The bound, negative if an element is {@code Integer.MIN_VALUE}.
+     */
+    private static int getBound(final int[] mat, final int offset, final int length) {
+        int bound = 0;
+        for (int l = offset; l < offset + length; l++) {
+            bound |= Math.abs(mat[l]);
+        }
+
+        return bound;
+    }
+
+    /**
+     * Adds to each column following a pivot column an integer multiple of the
+     * pivot column in a row-major matrix. All the column operations are done
+     * in a single pass over the rows, each row being updated as in
+     * {@code addRow}.
+     *
+     * @param mat The matrix.
+     * @param columns The number of columns of the matrix.
+     * @param pivot The pivot column index.
+     * @param factors The integer multiple of the pivot column to add to each
+     * column, only the elements after {@code pivot} being used.
+     *
+     * @throws ArithmeticException If the {@code int} arithmetic overflows.
      */
-    private static void addColumn(int[][] mat, final int column1, final int column2, final int k) {
-        final int rowNbr = mat.length;
-        for (int l = 0; l < rowNbr; l++) {
-            mat[l][column1] += k * mat[l][column2];
+    private static void addColumns(final int[] mat, final int columns, final int pivot, final int[] factors) {
+        final int length = columns - pivot - 1;
+        final int factorBound = getBound(factors, pivot + 1, length);
+
+        for (int offset = 0; offset < mat.length; offset += columns) {
+            final int val = mat[offset + pivot];
+            if (val == 0) {
+                continue;
+            }
+
+            final int bound = getBound(mat, offset + pivot + 1, length);
+            if (factorBound >= 0 && bound >= 0 && val != Integer.MIN_VALUE
+                    && (long) Math.abs(val) * factorBound + bound <= Integer.MAX_VALUE) {
+                for (int l = pivot + 1; l < columns; l++) {
+                    mat[offset + l] += factors[l] * val;
+                }
+            } else {
+                for (int l = pivot + 1; l < columns; l++) {
+                    mat[offset + l] = Math.addExact(mat[offset + l], Math.multiplyExact(factors[l], val));
+                }
+            }
         }
     }
 
     /**
-     * Multiply a row by an integer.
+     * Multiply a row of a row-major matrix by an integer.
      *
      * @param mat The matrix.
+     * @param columns The number of columns of the matrix.
      * @param row The row index to myltiply.
      * @param k The integer.
      */
-    private static void multiplyRow(int[][] mat, final int row, final int k) {
-        final int columnsNbr = mat[0].length;
-        for (int l = 0; l < columnsNbr; l++) {
-            mat[row][l] *= k;
+    private static void multiplyRow(final int[] mat, final int columns, final int row, final int k) {
+        final int offset = row * columns;
+        for (int l = 0; l < columns; l++) {
+            mat[offset + l] *= k;
         }
     }
 
@@ -122,18 +238,17 @@ public final class IntegerMatrix {
             throw new MathsArgumentException("Only matrices of same size can be added.");
         }
 
-        final int[][] sum = new int[rows][columns];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                sum[i][j] = matrix[i][j] + mat.getij(i, j);
-            }
+        final int[] sum = new int[matrix.length];
+        for (int k = 0; k < sum.length; k++) {
+            sum[k] = matrix[k] + mat.matrix[k];
         }
 
-        return new IntegerMatrix(sum);
+        return new IntegerMatrix(sum, rows, columns);
     }
 
     /**
-     * Give the product with another matrix.
+     * Give the product with another matrix. The product is computed by tiles
+     * and, for big matrices, by bands of rows in the common pool.
      *
      * @param mat The matrix to multiply with.
      *
@@ -147,135 +262,288 @@ public final class IntegerMatrix {
         }
 
         final int pcolumn = mat.getColumnNbr();
-        final int[][] product = new int[rows][pcolumn];
 
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < pcolumn; j++) {
-                for (int k = 0; k < columns; k++) {
-                    product[i][j] += matrix[i][k] * mat.getij(k, j);
-                }
-            }
-        }
-
-        return new IntegerMatrix(product);
+        return new IntegerMatrix(BlockedProduct.multiply(matrix, rows, columns, mat.matrix, pcolumn), rows, pcolumn);
     }
 
     /**
-     * Give the transpose of the matrix.
+     * Give the transpose of the matrix. The elements are moved by square
+     * tiles, so that the rows read and written by a tile stay in cache.
      *
      * @return The transposed matrix.
      */
     public IntegerMatrix transpose() {
-        final int[][] transpose = new int[columns][rows];
+        final int[] transpose = new int[matrix.length];
+        transpose(matrix, rows, columns, transpose);
 
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                transpose[j][i] = matrix[i][j];
+        return new IntegerMatrix(transpose, columns, rows);
+    }
+
+    /**
+     * Transposes a row-major matrix in a given array, by square tiles so
+     * that the rows read and written by a tile stay in cache.
+     *
+     * @param mat The matrix.
+     * @param rows The number of rows of the matrix.
+     * @param columns The number of columns of the matrix.
+     * @param transpose The array receiving the row-major transpose, distinct
+     * from {@code mat}.
+     */
+    static void transpose(final int[] mat, final int rows, final int columns, final int[] transpose) {
+        for (int i0 = 0; i0 < rows; i0 += TRANSPOSE_TILE) {
+            final int iMax = Math.min(i0 + TRANSPOSE_TILE, rows);
+            for (int j0 = 0; j0 < columns; j0 += TRANSPOSE_TILE) {
+                final int jMax = Math.min(j0 + TRANSPOSE_TILE, columns);
+                for (int j = j0; j < jMax; j++) {
+                    final int offset = j * rows;
+                    for (int i = i0; i < iMax; i++) {
+                        transpose[offset + i] = mat[i * columns + j];
+                    }
+                }
             }
         }
-
-        return new IntegerMatrix(transpose);
     }
 
     /**
-     * @return @throws MathsIllegalOperationException
+     * Gives the determinant of the matrix. The calculation is done by Bareiss
+     * fraction-free elimination with {@code long} arithmetic and restarted
+     * with {@code BigInteger} arithmetic if it overflows.
+     *
+     * @return The determinant of the matrix.
+     *
+     * @throws MathsIllegalOperationException If the matrix is not squared.
+     * @throws ArithmeticException If the determinant doesn't fit in an
+     * {@code int}.
      */
     public int getDet() throws MathsIllegalOperationException {
+        return getBigDet().intValueExact();
+    }
+
+    /**
+     * Gives the exact determinant of the matrix, whatever its size.
+     *
+     * @return The determinant of the matrix.
+     *
+     * @throws MathsIllegalOperationException If the matrix is not squared.
+     */
+    public BigInteger getBigDet() throws MathsIllegalOperationException {
         if (!isSquare()) {
             throw new MathsIllegalOperationException("The matrix is not squared.");
         }
 
-        switch (rows) {
-            case 0:
-                return 0;
-            case 1:
-                return matrix[0][0];
-            case 2:
-                return matrix[0][0] * matrix[1][1] - matrix[1][0] * matrix[0][1];
-            case 3:
-                return matrix[0][0] * (matrix[1][1] * matrix[2][2] - matrix[1][2] * matrix[2][1])
-                        - matrix[0][1] * (matrix[1][0] * matrix[2][2] - matrix[1][2] * matrix[2][0])
-                        + matrix[0][2] * (matrix[1][0] * matrix[2][1] - matrix[1][1] * matrix[2][0]);
-            default:
-                final int[][] gaussJordan = new int[rows][];
-                for (int i = 0; i < rows; i++) {
-                    gaussJordan[i] = Arrays.copyOf(matrix[i], rows);
-                }
+        if (rows == 0) {
+            return BigInteger.ZERO;
+        }
+        return WideElimination.det(WideElimination.toLongArray(this));
+    }
 
-                int det = 1;
+    /**
+     * Gives the exact determinant of the matrix by computing it modulo enough
+     * word sized primes, in parallel, and rebuilding it with the chinese
+     * remainder theorem. This is faster than {@code getBigDet} for big dense
+     * matrices with a big determinant.
+     *
+     * @return The determinant of the matrix.
+     *
+     * @throws MathsIllegalOperationException If the matrix is not squared.
+     */
+    public BigInteger getModularDet() throws MathsIllegalOperationException {
+        if (!isSquare()) {
+            throw new MathsIllegalOperationException("The matrix is not squared.");
+        }
 
-                for (int col = 0; col < columns; col++) {
-                    int firstNotNullIndex = -1;
-                    for (int line = col; line < rows; line++) {
-                        if (gaussJordan[line][col] != 0) {
-                            firstNotNullIndex = line;
-                            break;
-                        }
-                    }
-                    if (firstNotNullIndex == -1) {
-                        return 0;
-                    }
+        return rows == 0 ? BigInteger.ZERO : ModularDeterminant.det(matrix, rows);
+    }
 
-                    int firstNotNullValue = gaussJordan[firstNotNullIndex][col];
-                    for (int i = firstNotNullIndex + 1; i < rows; i++) {
-                        final int val = gaussJordan[i][col];
-                        if (val == 0) {
-                            continue;
-                        }
+    /**
+     * Gives the product of the diagonal elements of the Smith normal form of
+     * the squared matrix, which is the absolute value of its determinant. It
+     * is computed with {@code getModularDet}, so it doesn't need the
+     * invariant factors to fit in an {@code int}.
+     *
+     * @return The product of the invariant factors, zero if the matrix is
+     * singular.
+     *
+     * @throws MathsIllegalOperationException If the matrix is not squared.
+     */
+    public BigInteger getSNFProduct() throws MathsIllegalOperationException {
+        return getModularDet().abs();
+    }
 
-                        if (firstNotNullValue % val == 0) {
-                            addRow(gaussJordan, firstNotNullIndex, i, -firstNotNullValue / val);
-                            firstNotNullIndex = i;
-                            firstNotNullValue = val;
-                        } else if (val % firstNotNullValue == 0) {
-                            addRow(gaussJordan, i, firstNotNullIndex, -val / firstNotNullValue);
-                        } else {
-                            if (Math.abs(val) > Math.abs(firstNotNullValue)) {
-                                addRow(gaussJordan, i, firstNotNullIndex, -val / firstNotNullValue);
-                            } else {
-                                addRow(gaussJordan, firstNotNullIndex, i, -firstNotNullValue / val);
-                                firstNotNullValue = gaussJordan[firstNotNullIndex][col];
-                            }
-                            i--;
-                        }
-                    }
+    /**
+     * Give the Smith normal form of the matrix. The elimination is done with
+     * {@code int} arithmetic and restarted with {@code long}, then
+     * {@code BigInteger}, arithmetic if it overflows.
+     *
+     * @return The Smith normal form of the matrix.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public IntegerMatrix toSNF() {
+        final int[] diagonal = getSNFDiagonal();
+        final int[] snf = new int[matrix.length];
 
-                    if (firstNotNullIndex != col) {
-                        exchangeRows(gaussJordan, firstNotNullIndex, col);
-                        det = -det;
-                    }
-                    det *= firstNotNullValue;
-                }
+        for (int i = 0; i < diagonal.length; i++) {
+            snf[i * columns + i] = diagonal[i];
+        }
+
+        return new IntegerMatrix(snf, rows, columns);
+    }
 
-                return det;
+    /**
+     * Gives the summary of the Smith normal form of the matrix, without
+     * building the diagonal matrix.
+     *
+     * @return The summary of the Smith normal form.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public SNFSummary getSNFSummary() {
+        final int[] diagonal = getSNFDiagonal();
+        int rank = 0;
+        while (rank < diagonal.length && diagonal[rank] != 0) {
+            rank++;
         }
+
+        return new SNFSummary(rows, columns, Arrays.copyOf(diagonal, rank));
     }
 
     /**
-     * Give the Smith normal form of the matrix.
+     * Give the Smith normal form of the matrix, computed modulo a non zero
+     * maximal minor when the matrix has full rank, so that the elements of
+     * the elimination stay below the minor. Otherwise, or if the minor
+     * doesn't fit in an {@code int}, this is {@code toSNF()}.
      *
      * @return The Smith normal form of the matrix.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
      */
-    public IntegerMatrix toSNF() {
-        final int[][] snf = new int[rows][];
-        final int length = Math.min(rows, columns);
+    public IntegerMatrix toModularSNF() {
+        final int[] factors = ModularSNF.invariantFactors(matrix, rows, columns);
+        if (factors == null) {
+            return toSNF();
+        }
 
-        boolean modified, rowExchanged;
+        final int[] snf = new int[matrix.length];
+        for (int i = 0; i < factors.length; i++) {
+            snf[i * columns + i] = factors[i];
+        }
 
-        for (int i = 0; i < rows; i++) {
-            snf[i] = matrix[i].clone();
+        return new IntegerMatrix(snf, rows, columns);
+    }
+
+    /**
+     * Gives the summary of the Smith normal form of the matrix, computed as
+     * in {@code toModularSNF()}.
+     *
+     * @return The summary of the Smith normal form.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public SNFSummary getModularSNFSummary() {
+        final int[] factors = ModularSNF.invariantFactors(matrix, rows, columns);
+
+        return factors == null ? getSNFSummary() : new SNFSummary(rows, columns, factors);
+    }
+
+    /**
+     * Give the Smith normal form of the matrix, the pivots being chosen by a
+     * strategy. Apart from {@code SMALLEST}, which is the dense elimination of
+     * {@code toSNF()}, the strategies limit the fill-in, so the matrix is
+     * reduced as a sparse one.
+     *
+     * @param strategy The pivot strategy.
+     *
+     * @return The Smith normal form of the matrix.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public IntegerMatrix toSNF(final PivotStrategy strategy) {
+        if (strategy == PivotStrategy.SMALLEST) {
+            return toSNF();
+        }
+
+        final int[] factors = new SparseIntegerMatrix(this).getInvariantFactors(strategy);
+        final int[] snf = new int[matrix.length];
+        for (int i = 0; i < factors.length; i++) {
+            snf[i * columns + i] = factors[i];
+        }
+
+        return new IntegerMatrix(snf, rows, columns);
+    }
+
+    /**
+     * Gives the summary of the Smith normal form of the matrix, the pivots
+     * being chosen by a strategy as in {@code toSNF(strategy)}.
+     *
+     * @param strategy The pivot strategy.
+     *
+     * @return The summary of the Smith normal form.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public SNFSummary getSNFSummary(final PivotStrategy strategy) {
+        if (strategy == PivotStrategy.SMALLEST) {
+            return getSNFSummary();
+        }
+
+        return new SparseIntegerMatrix(this).getSNFSummary(strategy);
+    }
+
+    /**
+     * Gives the diagonal of the Smith normal form of the matrix.
+     *
+     * @return The diagonal, of length {@code min(rows, columns)}.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    int[] getSNFDiagonal() {
+        try {
+            return getIntSNFDiagonal();
+        } catch (final ArithmeticException ex) {
+            final long[] diagonal;
+            try {
+                diagonal = WideElimination.snfDiagonal(WideElimination.toLongArray(this));
+            } catch (final ArithmeticException ex2) {
+                return WideElimination.toIntDiagonal(WideElimination.snfDiagonal(WideElimination.toBigArray(this)));
+            }
+            return WideElimination.toIntDiagonal(diagonal);
         }
+    }
+
+    /**
+     * Gives the diagonal of the Smith normal form of the matrix using
+     * {@code int} arithmetic.
+     *
+     * @return The diagonal, of length {@code min(rows, columns)}.
+     *
+     * @throws ArithmeticException If the {@code int} arithmetic overflows.
+     */
+    private int[] getIntSNFDiagonal() {
+        final int[] snf = matrix.clone();
+        final int[] factors = new int[columns];
+        final int length = Math.min(rows, columns);
+
+        boolean modified, rowExchanged;
 
         for (int i = 0; i < length; i++) {
+            final int pivot = i * columns + i;
             do {
                 rowExchanged = false;
                 int min;
                 do {
                     modified = false;
-                    min = Math.abs(snf[i][i]);
+                    min = WideElimination.absExact(snf[pivot]);
                     int position = i;
                     for (int j = i + 1; j < columns; j++) {
-                        final int temp = Math.abs(snf[i][j]);
+                        final int temp = WideElimination.absExact(snf[i * columns + j]);
                         if (temp > 0 && (temp < min || min == 0)) {
                             min = temp;
                             position = j;
@@ -288,23 +556,26 @@ public final class IntegerMatrix {
                     if (min == 0) {
                         break;
                     } else if (position != i) {
-                        exchangeColumns(snf, i, position);
+                        exchangeColumns(snf, columns, i, position);
                     }
 
                     for (int j = i + 1; j < columns; j++) {
-                        if (snf[i][j] != 0) {
-                            addColumn(snf, j, i, -snf[i][j] / snf[i][i]);
+                        factors[j] = Math.negateExact(snf[i * columns + j] / snf[pivot]);
+                        if (snf[i * columns + j] != 0) {
                             modified = true;
                         }
                     }
+                    if (modified) {
+                        addColumns(snf, columns, i, factors);
+                    }
                 } while (modified == true && min != 1);
 
                 do {
                     modified = false;
-                    min = Math.abs(snf[i][i]);
+                    min = WideElimination.absExact(snf[pivot]);
                     int position = i;
                     for (int j = i + 1; j < rows; j++) {
-                        final int temp = Math.abs(snf[j][i]);
+                        final int temp = WideElimination.absExact(snf[j * columns + i]);
                         if (temp > 0 && (temp < min || min == 0)) {
                             min = temp;
                             position = j;
@@ -317,13 +588,13 @@ public final class IntegerMatrix {
                     if (min == 0) {
                         break;
                     } else if (position != i) {
-                        exchangeRows(snf, i, position);
+                        exchangeRows(snf, columns, i, position);
                         rowExchanged = modified = true;
                     }
 
                     for (int j = i + 1; j < rows; j++) {
-                        if (snf[j][i] != 0) {
-                            addRow(snf, j, i, -snf[j][i] / snf[i][i]);
+                        if (snf[j * columns + i] != 0) {
+                            addRow(snf, columns, j, i, Math.negateExact(snf[j * columns + i] / snf[pivot]));
                             modified = true;
                         }
                     }
@@ -331,30 +602,32 @@ public final class IntegerMatrix {
             } while (rowExchanged == true);
         }
 
-        do {
-            modified = false;
-            for (int i = 0; i < length - 1; i++) {
-                final int v1 = snf[i][i];
-                final int v2 = snf[i + 1][i + 1];
-                if (v1 == 0) {
-                    if (v2 != 0) {
-                        snf[i][i] = v2;
-                        snf[i + 1][i + 1] = 0;
-                        modified = true;
-                    }
-                } else if (v2 != v1 * (v2 / v1)) {
-                    snf[i][i] = IntegerCalc.gCD(v1, v2);
-                    snf[i + 1][i + 1] = v1 * v2 / snf[i][i];
-                    modified = true;
-                }
-            }
-        } while (modified == true);
-
+        final long[] diagonal = new long[length];
         for (int i = 0; i < length; i++) {
-            snf[i][i] = Math.abs(snf[i][i]);
+            diagonal[i] = snf[i * columns + i];
+        }
+        WideElimination.normalizeDiagonal(diagonal);
+
+        return WideElimination.toIntDiagonal(diagonal);
+    }
+
+    /**
+     * Gives the rank of the matrix over the field with {@code prime} elements.
+     * Entries are reduced once in a working copy, the row operations don't
+     * allocate and intermediate products stay in a {@code long}.
+     *
+     * @param prime The characteristic of the field.
+     *
+     * @return The rank of the matrix modulo {@code prime}.
+     *
+     * @throws MathsArgumentException If {@code prime} is not a positive prime.
+     */
+    public int getRank(final int prime) throws MathsArgumentException {
+        if (prime <= 0 || !IntegerCalc.isPrime(prime)) {
+            throw new MathsArgumentException("The modulus must be a positive prime.");
         }
 
-        return new IntegerMatrix(snf);
+        return ModularRank.rank(matrix, rows, columns, prime);
     }
 
     /**
@@ -366,7 +639,7 @@ public final class IntegerMatrix {
      * @return The empty matrix.
      */
     public static IntegerMatrix getEmpty(final int row, final int column) {
-        return new IntegerMatrix(new int[row][column]);
+        return new IntegerMatrix(new int[row * column], row, column);
     }
 
     /**
@@ -383,7 +656,7 @@ public final class IntegerMatrix {
 
         int trace = 0;
         for (int i = 0; i < columns; i++) {
-            trace += matrix[i][i];
+            trace += matrix[i * columns + i];
         }
 
         return trace;
@@ -398,7 +671,33 @@ public final class IntegerMatrix {
      * @return The value of the (i,j) element of the matrix.
      */
     public int getij(final int i, final int j) {
-        return matrix[i][j];
+        return matrix[i * columns + j];
+    }
+
+    /**
+     * Returns the number of non zero elements.
+     *
+     * @return The number of non zero elements.
+     */
+    public int getNonZeroNbr() {
+        int count = 0;
+        for (final int val : matrix) {
+            if (val != 0) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the row-major array of the elements, which is not copied and
+     * must not be modified.
+     *
+     * @return The elements.
+     */
+    int[] getElements() {
+        return matrix;
     }
 
     /**
@@ -429,12 +728,14 @@ public final class IntegerMatrix {
     }
 
     /**
-     * Tells if the matrix is empty.
+     * Tells if the matrix is empty, that is has neither rows nor columns. A
+     * matrix with no rows but some columns is the null map to the null
+     * module and isn't empty.
      *
      * @return {@code true} if the matrix is empty, {@code false} otherwise.
      */
     public boolean isEmpty() {
-        return rows == 0;
+        return rows == 0 && columns == 0;
     }
 
     @Override
@@ -444,16 +745,16 @@ public final class IntegerMatrix {
         if (rows == 1) {
             matString.append('[');
             for (int i = 0; i < columns; i++) {
-                matString.append(matrix[0][i]).append('\t');
+                matString.append(matrix[i]).append('\t');
             }
             matString.replace(matString.length() - 1, matString.length(), "]\n");
             return matString.toString();
         }
 
-        for (int[] row : matrix) {
+        for (int i = 0; i < rows; i++) {
             matString.append('|');
             for (int j = 0; j < columns; j++) {
-                matString.append(row[j]).append('\t');
+                matString.append(matrix[i * columns + j]).append('\t');
             }
             matString.replace(matString.length() - 1, matString.length(), "|\n");
         }
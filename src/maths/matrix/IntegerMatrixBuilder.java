@@ -0,0 +1,271 @@
+package maths.matrix;
+
+import maths.exceptions.MathsArgumentException;
+
+/**
+ * Class representing a mutable integer matrix, used to chain operations
+ * without allocating a new matrix for each intermediate result. The results
+ * are written in existing builders, and {@code freeze} gives the
+ * {@code IntegerMatrix} holding the elements without copying them: the
+ * elements are only copied if the builder is modified afterwards.
+ *
+ * @author flo
+ */
+public final class IntegerMatrixBuilder {
+
+    /**
+     * The elements in row-major order, the row stride being the number of
+     * columns.
+     */
+    private int[] matrix;
+    private final int columns, rows;
+
+    /**
+     * {@code true} if the elements are held by a frozen matrix.
+     */
+    private boolean frozen = false;
+
+    /**
+     * Creates a matrix filled with zeros.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     *
+     * @throws MathsArgumentException If a size is negative.
+     */
+    public IntegerMatrixBuilder(final int rows, final int columns) throws MathsArgumentException {
+        if (rows < 0 || columns < 0) {
+            throw new MathsArgumentException("The sizes of a matrix can't be negative.");
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        matrix = new int[rows * columns];
+    }
+
+    /**
+     * Creates a matrix with the elements of an {@code IntegerMatrix}, which
+     * are copied.
+     *
+     * @param matrix The matrix.
+     */
+    public IntegerMatrixBuilder(final IntegerMatrix matrix) {
+        rows = matrix.getRowNbr();
+        columns = matrix.getColumnNbr();
+        this.matrix = matrix.getElements().clone();
+    }
+
+    /**
+     * Adds a matrix to this one.
+     *
+     * @param mat The matrix to add.
+     *
+     * @return This builder.
+     *
+     * @throws MathsArgumentException If matrices have different sizes.
+     */
+    public IntegerMatrixBuilder addInto(final IntegerMatrix mat) throws MathsArgumentException {
+        if (mat.getRowNbr() != rows || mat.getColumnNbr() != columns) {
+            throw new MathsArgumentException("Only matrices of same size can be added.");
+        }
+
+        add(mat.getElements());
+        return this;
+    }
+
+    /**
+     * Adds a matrix to this one.
+     *
+     * @param mat The matrix to add, which may be this one.
+     *
+     * @return This builder.
+     *
+     * @throws MathsArgumentException If matrices have different sizes.
+     */
+    public IntegerMatrixBuilder addInto(final IntegerMatrixBuilder mat) throws MathsArgumentException {
+        if (mat.rows != rows || mat.columns != columns) {
+            throw new MathsArgumentException("Only matrices of same size can be added.");
+        }
+
+        add(mat.matrix);
+        return this;
+    }
+
+    /**
+     * Writes the product of this matrix with another one in a builder.
+     *
+     * @param mat The matrix to multiply with.
+     * @param dest The builder receiving the product, distinct from this one.
+     *
+     * @return The builder {@code dest}.
+     *
+     * @throws MathsArgumentException If matrices sizes doesn't fit for
+     * product, or if {@code dest} is this builder.
+     */
+    public IntegerMatrixBuilder multiplyInto(final IntegerMatrix mat, final IntegerMatrixBuilder dest)
+            throws MathsArgumentException {
+        checkProduct(mat.getRowNbr(), mat.getColumnNbr(), dest);
+        if (dest == this) {
+            throw new MathsArgumentException("The product can't be written in an operand.");
+        }
+
+        dest.prepareOverwrite();
+        BlockedProduct.multiply(matrix, rows, columns, mat.getElements(), mat.getColumnNbr(), dest.matrix);
+        return dest;
+    }
+
+    /**
+     * Writes the product of this matrix with another one in a builder.
+     *
+     * @param mat The matrix to multiply with.
+     * @param dest The builder receiving the product, distinct from both
+     * operands.
+     *
+     * @return The builder {@code dest}.
+     *
+     * @throws MathsArgumentException If matrices sizes doesn't fit for
+     * product, or if {@code dest} is an operand.
+     */
+    public IntegerMatrixBuilder multiplyInto(final IntegerMatrixBuilder mat, final IntegerMatrixBuilder dest)
+            throws MathsArgumentException {
+        checkProduct(mat.rows, mat.columns, dest);
+        if (dest == this || dest == mat) {
+            throw new MathsArgumentException("The product can't be written in an operand.");
+        }
+
+        dest.prepareOverwrite();
+        BlockedProduct.multiply(matrix, rows, columns, mat.matrix, mat.columns, dest.matrix);
+        return dest;
+    }
+
+    /**
+     * Writes the transpose of this matrix in a builder.
+     *
+     * @param dest The builder receiving the transpose, distinct from this
+     * one.
+     *
+     * @return The builder {@code dest}.
+     *
+     * @throws MathsArgumentException If {@code dest} doesn't have the size of
+     * the transpose, or if it is this builder.
+     */
+    public IntegerMatrixBuilder transposeInto(final IntegerMatrixBuilder dest) throws MathsArgumentException {
+        if (dest.rows != columns || dest.columns != rows) {
+            throw new MathsArgumentException("The destination must have the size of the transpose.");
+        }
+        if (dest == this) {
+            throw new MathsArgumentException("The transpose can't be written in its matrix.");
+        }
+
+        dest.prepareOverwrite();
+        IntegerMatrix.transpose(matrix, rows, columns, dest.matrix);
+        return dest;
+    }
+
+    /**
+     * Returns the {@code IntegerMatrix} equal to this one. Its elements are
+     * not copied, they will be on the next modification of this builder.
+     *
+     * @return The matrix.
+     */
+    public IntegerMatrix freeze() {
+        frozen = true;
+
+        return new IntegerMatrix(matrix, rows, columns);
+    }
+
+    /**
+     * Returns an element of the matrix.
+     *
+     * @param i The row number.
+     * @param j The column number.
+     *
+     * @return The value of the (i,j) element of the matrix.
+     */
+    public int getij(final int i, final int j) {
+        return matrix[i * columns + j];
+    }
+
+    /**
+     * Sets an element of the matrix.
+     *
+     * @param i The row number.
+     * @param j The column number.
+     * @param value The new value of the (i,j) element of the matrix.
+     */
+    public void setij(final int i, final int j, final int value) {
+        prepareWrite();
+        matrix[i * columns + j] = value;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getRowNbr() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int getColumnNbr() {
+        return columns;
+    }
+
+    /**
+     * Adds a row-major matrix of the same size to this one.
+     *
+     * @param mat The elements of the matrix to add.
+     */
+    private void add(final int[] mat) {
+        prepareWrite();
+        for (int k = 0; k < matrix.length; k++) {
+            matrix[k] += mat[k];
+        }
+    }
+
+    /**
+     * Checks the sizes of a product of this matrix with another one.
+     *
+     * @param matRows The number of rows of the other matrix.
+     * @param matColumns The number of columns of the other matrix.
+     * @param dest The builder receiving the product.
+     *
+     * @throws MathsArgumentException If the sizes don't fit.
+     */
+    private void checkProduct(final int matRows, final int matColumns, final IntegerMatrixBuilder dest)
+            throws MathsArgumentException {
+        if (columns != matRows) {
+            throw new MathsArgumentException("Incompatible size for matrix multiplication.");
+        }
+        if (dest.rows != rows || dest.columns != matColumns) {
+            throw new MathsArgumentException("The destination must have the size of the product.");
+        }
+    }
+
+    /**
+     * Copies the elements before a modification if they are held by a frozen
+     * matrix.
+     */
+    private void prepareWrite() {
+        if (frozen) {
+            matrix = matrix.clone();
+            frozen = false;
+        }
+    }
+
+    /**
+     * Gives new elements before they are all overwritten if they are held by
+     * a frozen matrix.
+     */
+    private void prepareOverwrite() {
+        if (frozen) {
+            matrix = new int[matrix.length];
+            frozen = false;
+        }
+    }
+}
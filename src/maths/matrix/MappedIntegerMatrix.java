@@ -0,0 +1,757 @@
+package maths.matrix;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import maths.exceptions.MathsArgumentException;
+import maths.numbers.IntegerCalc;
+
+/**
+ * Class representing an integer matrix stored in a file mapped in memory, for
+ * matrices too large for the heap. The file holds the number of rows and
+ * columns followed by the elements in row-major order, and is mapped by
+ * blocks of consecutive rows. The pages are loaded and written back by the
+ * operating system, so only a few rows are ever held on the heap.
+ * Reductions work on a mapped copy of the matrix created next to its file
+ * and deleted afterwards.
+ *
+ * @author flo
+ */
+public final class MappedIntegerMatrix implements AutoCloseable {
+
+    /**
+     * Size of the header holding the number of rows and columns.
+     */
+    private static final int HEADER = 8;
+
+    /**
+     * Maximal size of a mapped block of rows.
+     */
+    private static final int BLOCK_BYTES = 1 << 30;
+
+    /**
+     * Side of the square tiles moved at once by the transposition.
+     */
+    private static final int TILE = 256;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] mapped;
+    private final IntBuffer[] blocks;
+    private final Path file;
+    private final int rows, columns, blockRows;
+
+    /**
+     * Maps a matrix file.
+     *
+     * @param file The file.
+     * @param channel The channel opened on the file, for reading and writing.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     *
+     * @throws IOException If the file can't be mapped.
+     */
+    private MappedIntegerMatrix(final Path file, final FileChannel channel, final int rows, final int columns)
+            throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.rows = rows;
+        this.columns = columns;
+        blockRows = getBlockRows(rows, columns, Integer.BYTES);
+        mapped = mapBlocks(channel, HEADER, rows, columns, Integer.BYTES, blockRows);
+        blocks = new IntBuffer[mapped.length];
+        for (int b = 0; b < mapped.length; b++) {
+            blocks[b] = mapped[b].asIntBuffer();
+        }
+    }
+
+    /**
+     * Creates a matrix filled with zeros in a file, replacing its content.
+     *
+     * @param file The file.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     *
+     * @return The mapped matrix.
+     *
+     * @throws MathsArgumentException If a size is negative.
+     * @throws IOException If the file can't be written or mapped.
+     */
+    public static MappedIntegerMatrix create(final Path file, final int rows, final int columns)
+            throws MathsArgumentException, IOException {
+        if (rows < 0 || columns < 0) {
+            throw new MathsArgumentException("The sizes of a matrix can't be negative.");
+        }
+
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(rows).putInt(columns).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        return new MappedIntegerMatrix(file, channel, rows, columns);
+    }
+
+    /**
+     * Creates a matrix in a file, replacing its content, with the elements of
+     * a matrix.
+     *
+     * @param file The file.
+     * @param matrix The matrix to copy.
+     *
+     * @return The mapped matrix.
+     *
+     * @throws IOException If the file can't be written or mapped.
+     */
+    public static MappedIntegerMatrix create(final Path file, final IntegerMatrix matrix) throws IOException {
+        final MappedIntegerMatrix mappedMatrix;
+        try {
+            mappedMatrix = create(file, matrix.getRowNbr(), matrix.getColumnNbr());
+        } catch (final MathsArgumentException ex) {
+            throw new IllegalStateException("The sizes of a matrix are always valid here.", ex);
+        }
+
+        final int[] row = new int[matrix.getColumnNbr()];
+        for (int i = 0; i < matrix.getRowNbr(); i++) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = matrix.getij(i, j);
+            }
+            mappedMatrix.putRow(i, row);
+        }
+
+        return mappedMatrix;
+    }
+
+    /**
+     * Maps a matrix file written by {@code create}.
+     *
+     * @param file The file.
+     *
+     * @return The mapped matrix.
+     *
+     * @throws IOException If the file can't be read or mapped, or if its size
+     * doesn't match its header.
+     */
+    public static MappedIntegerMatrix open(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER);
+        while (header.hasRemaining() && channel.read(header) >= 0) {
+        }
+        header.flip();
+
+        if (header.remaining() != HEADER) {
+            channel.close();
+            throw new IOException("The file doesn't hold a matrix.");
+        }
+        final int rows = header.getInt();
+        final int columns = header.getInt();
+        if (rows < 0 || columns < 0 || channel.size() != HEADER + (long) rows * columns * Integer.BYTES) {
+            channel.close();
+            throw new IOException("The file doesn't hold a matrix.");
+        }
+
+        return new MappedIntegerMatrix(file, channel, rows, columns);
+    }
+
+    /**
+     * Gives the number of rows of a mapped block.
+     *
+     * @param rows The number of rows of the matrix.
+     * @param columns The number of columns of the matrix.
+     * @param elementBytes The size of an element.
+     *
+     * @return The number of rows of each block but the last.
+     */
+    private static int getBlockRows(final int rows, final int columns, final int elementBytes) {
+        if (columns == 0) {
+            return Math.max(rows, 1);
+        }
+
+        return Math.max(1, BLOCK_BYTES / (columns * elementBytes));
+    }
+
+    /**
+     * Maps the elements of a matrix by blocks of rows.
+     *
+     * @param channel The channel opened on the file.
+     * @param offset The position of the first element in the file.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param elementBytes The size of an element.
+     * @param blockRows The number of rows of a block.
+     *
+     * @return The mapped blocks.
+     *
+     * @throws IOException If the file can't be mapped.
+     */
+    private static MappedByteBuffer[] mapBlocks(final FileChannel channel, final long offset, final int rows,
+            final int columns, final int elementBytes, final int blockRows) throws IOException {
+        final MappedByteBuffer[] buffers = new MappedByteBuffer[(rows + blockRows - 1) / blockRows];
+        final long rowBytes = (long) columns * elementBytes;
+
+        for (int b = 0; b < buffers.length; b++) {
+            final int first = b * blockRows;
+            final int size = Math.min(blockRows, rows - first);
+            buffers[b] = channel.map(FileChannel.MapMode.READ_WRITE, offset + first * rowBytes, size * rowBytes);
+        }
+
+        return buffers;
+    }
+
+    /**
+     * Returns an element of the matrix.
+     *
+     * @param i The row number.
+     * @param j The column number.
+     *
+     * @return The value of the (i,j) element of the matrix.
+     */
+    public int getij(final int i, final int j) {
+        return blocks[i / blockRows].get(i % blockRows * columns + j);
+    }
+
+    /**
+     * Sets an element of the matrix.
+     *
+     * @param i The row number.
+     * @param j The column number.
+     * @param value The new value of the (i,j) element of the matrix.
+     */
+    public void setij(final int i, final int j, final int value) {
+        blocks[i / blockRows].put(i % blockRows * columns + j, value);
+    }
+
+    /**
+     * Returns a row of the matrix.
+     *
+     * @param i The row number.
+     *
+     * @return The elements of the row.
+     */
+    public int[] getRow(final int i) {
+        final int[] row = new int[columns];
+        final IntBuffer block = blocks[i / blockRows].duplicate();
+        block.position(i % blockRows * columns);
+        block.get(row);
+
+        return row;
+    }
+
+    /**
+     * Sets a row of the matrix.
+     *
+     * @param i The row number.
+     * @param row The new elements of the row.
+     *
+     * @throws MathsArgumentException If the length of {@code row} isn't the
+     * number of columns.
+     */
+    public void setRow(final int i, final int[] row) throws MathsArgumentException {
+        if (row.length != columns) {
+            throw new MathsArgumentException("The row length must be the number of columns.");
+        }
+
+        putRow(i, row);
+    }
+
+    /**
+     * Sets a row of the matrix without checking its length.
+     *
+     * @param i The row number.
+     * @param row The new elements of the row.
+     */
+    private void putRow(final int i, final int[] row) {
+        final IntBuffer block = blocks[i / blockRows].duplicate();
+        block.position(i % blockRows * columns);
+        block.put(row);
+    }
+
+    /**
+     * Copies consecutive rows of the matrix on the heap.
+     *
+     * @param firstRow The first row number.
+     * @param rowNbr The number of rows.
+     *
+     * @return The matrix made of these rows.
+     *
+     * @throws MathsArgumentException If the rows are out of the matrix.
+     */
+    public IntegerMatrix getRows(final int firstRow, final int rowNbr) throws MathsArgumentException {
+        if (firstRow < 0 || rowNbr < 0 || firstRow > rows - rowNbr) {
+            throw new MathsArgumentException("The rows must be in the matrix.");
+        }
+
+        final int[] elements = new int[rowNbr * columns];
+        for (int i = 0; i < rowNbr; i++) {
+            final IntBuffer block = blocks[(firstRow + i) / blockRows].duplicate();
+            block.position((firstRow + i) % blockRows * columns);
+            block.get(elements, i * columns, columns);
+        }
+
+        return new IntegerMatrix(elements, rowNbr, columns);
+    }
+
+    /**
+     * Copies the matrix on the heap.
+     *
+     * @return The matrix.
+     */
+    public IntegerMatrix toIntegerMatrix() {
+        try {
+            return getRows(0, rows);
+        } catch (final MathsArgumentException ex) {
+            throw new IllegalStateException("The sizes of a matrix are always valid here.", ex);
+        }
+    }
+
+    /**
+     * Writes the transpose of the matrix in a file, square tile by square tile
+     * so that both files are read and written a few rows at a time.
+     *
+     * @param target The file of the transposed matrix.
+     *
+     * @return The transposed matrix.
+     *
+     * @throws IOException If the target file can't be written or mapped.
+     */
+    public MappedIntegerMatrix transpose(final Path target) throws IOException {
+        final MappedIntegerMatrix transposed;
+        try {
+            transposed = create(target, columns, rows);
+        } catch (final MathsArgumentException ex) {
+            throw new IllegalStateException("The sizes of a matrix are always valid here.", ex);
+        }
+
+        for (int i0 = 0; i0 < rows; i0 += TILE) {
+            final int iMax = Math.min(i0 + TILE, rows);
+            for (int j0 = 0; j0 < columns; j0 += TILE) {
+                final int jMax = Math.min(j0 + TILE, columns);
+                for (int i = i0; i < iMax; i++) {
+                    for (int j = j0; j < jMax; j++) {
+                        transposed.setij(j, i, getij(i, j));
+                    }
+                }
+            }
+        }
+
+        return transposed;
+    }
+
+    /**
+     * Gives the rank of the matrix over the field with {@code prime} elements.
+     * The elimination works on a reduced copy of the matrix, one row at a
+     * time.
+     *
+     * @param prime The characteristic of the field.
+     *
+     * @return The rank of the matrix modulo {@code prime}.
+     *
+     * @throws MathsArgumentException If {@code prime} is not a positive prime.
+     * @throws IOException If the working copy can't be written or mapped.
+     */
+    public int getRank(final int prime) throws MathsArgumentException, IOException {
+        if (prime <= 0 || !IntegerCalc.isPrime(prime)) {
+            throw new MathsArgumentException("The modulus must be a positive prime.");
+        }
+
+        try (final WorkingCopy work = new WorkingCopy(prime)) {
+            final long[] pivot = new long[columns];
+            final long[] row = new long[columns];
+            int rank = 0;
+            for (int col = 0; col < columns && rank < rows; col++) {
+                int pivotRow = -1;
+                for (int line = rank; line < rows; line++) {
+                    if (work.get(line, col) != 0) {
+                        pivotRow = line;
+                        break;
+                    }
+                }
+                if (pivotRow == -1) {
+                    continue;
+                }
+                if (pivotRow != rank) {
+                    work.exchangeRows(rank, pivotRow);
+                }
+
+                work.readRow(rank, pivot);
+                final long inverse = Math.floorMod(IntegerCalc.extendedEuclid(pivot[col], (long) prime)[1], prime);
+                for (int line = rank + 1; line < rows; line++) {
+                    if (work.get(line, col) == 0) {
+                        continue;
+                    }
+                    work.readRow(line, row);
+                    final long factor = prime - row[col] * inverse % prime;
+                    for (int l = col; l < columns; l++) {
+                        row[l] = (row[l] + factor * pivot[l]) % prime;
+                    }
+                    work.writeRow(line, row);
+                }
+                rank++;
+            }
+
+            return rank;
+        }
+    }
+
+    /**
+     * Gives the summary of the Smith normal form of the matrix. The
+     * elimination is done with {@code long} arithmetic on a copy of the
+     * matrix; the column operations clearing a pivot row are applied together
+     * in one pass over the rows, as the file is stored row by row.
+     *
+     * @return The summary of the Smith normal form.
+     *
+     * @throws IOException If the working copy can't be written or mapped.
+     * @throws ArithmeticException If the {@code long} arithmetic overflows or
+     * if an invariant factor doesn't fit in an {@code int}.
+     */
+    public SNFSummary getSNFSummary() throws IOException {
+        final int[] diagonal = getSNFDiagonal();
+        int rank = 0;
+        while (rank < diagonal.length && diagonal[rank] != 0) {
+            rank++;
+        }
+
+        return new SNFSummary(rows, columns, Arrays.copyOf(diagonal, rank));
+    }
+
+    /**
+     * Writes the Smith normal form of the matrix in a file.
+     *
+     * @param target The file of the Smith normal form.
+     *
+     * @return The Smith normal form of the matrix.
+     *
+     * @throws IOException If a file can't be written or mapped.
+     * @throws ArithmeticException If the {@code long} arithmetic overflows or
+     * if an invariant factor doesn't fit in an {@code int}.
+     */
+    public MappedIntegerMatrix toSNF(final Path target) throws IOException {
+        final int[] diagonal = getSNFDiagonal();
+        final MappedIntegerMatrix snf;
+        try {
+            snf = create(target, rows, columns);
+        } catch (final MathsArgumentException ex) {
+            throw new IllegalStateException("The sizes of a matrix are always valid here.", ex);
+        }
+
+        for (int i = 0; i < diagonal.length; i++) {
+            snf.setij(i, i, diagonal[i]);
+        }
+
+        return snf;
+    }
+
+    /**
+     * Gives the diagonal of the Smith normal form of the matrix, with the
+     * same pivoting as the in memory {@code IntegerMatrix} elimination.
+     *
+     * @return The diagonal, of length {@code min(rows, columns)}.
+     *
+     * @throws IOException If the working copy can't be written or mapped.
+     * @throws ArithmeticException If the {@code long} arithmetic overflows or
+     * if an invariant factor doesn't fit in an {@code int}.
+     */
+    private int[] getSNFDiagonal() throws IOException {
+        final int length = Math.min(rows, columns);
+        final long[] diagonal = new long[length];
+
+        try (final WorkingCopy work = new WorkingCopy(0)) {
+            final long[] pivotRow = new long[columns];
+            final long[] row = new long[columns];
+            final long[] factors = new long[columns];
+            boolean modified, rowExchanged;
+
+            for (int i = 0; i < length; i++) {
+                do {
+                    rowExchanged = false;
+                    long min;
+                    do {
+                        modified = false;
+                        work.readRow(i, pivotRow);
+                        min = WideElimination.absExact(pivotRow[i]);
+                        int position = i;
+                        for (int j = i + 1; j < columns; j++) {
+                            final long temp = WideElimination.absExact(pivotRow[j]);
+                            if (temp > 0 && (temp < min || min == 0)) {
+                                min = temp;
+                                position = j;
+                                if (min == 1) {
+                                    break;
+                                }
+                            }
+                        }
+
+                        if (min == 0) {
+                            break;
+                        } else if (position != i) {
+                            work.exchangeColumns(i, position, i);
+                            final long temp = pivotRow[i];
+                            pivotRow[i] = pivotRow[position];
+                            pivotRow[position] = temp;
+                        }
+
+                        boolean nonZero = false;
+                        for (int j = i + 1; j < columns; j++) {
+                            factors[j] = Math.negateExact(pivotRow[j] / pivotRow[i]);
+                            if (pivotRow[j] != 0) {
+                                modified = true;
+                            }
+                            if (factors[j] != 0) {
+                                nonZero = true;
+                            }
+                        }
+                        if (nonZero) {
+                            work.addColumns(i, factors, row);
+                        }
+                    } while (modified == true && min != 1);
+
+                    do {
+                        modified = false;
+                        min = WideElimination.absExact(work.get(i, i));
+                        int position = i;
+                        for (int j = i + 1; j < rows; j++) {
+                            final long temp = WideElimination.absExact(work.get(j, i));
+                            if (temp > 0 && (temp < min || min == 0)) {
+                                min = temp;
+                                position = j;
+                                if (min == 1) {
+                                    break;
+                                }
+                            }
+                        }
+
+                        if (min == 0) {
+                            break;
+                        } else if (position != i) {
+                            work.exchangeRows(i, position);
+                            rowExchanged = modified = true;
+                        }
+
+                        work.readRow(i, pivotRow);
+                        for (int j = i + 1; j < rows; j++) {
+                            final long val = work.get(j, i);
+                            if (val == 0) {
+                                continue;
+                            }
+                            modified = true;
+                            final long k = Math.negateExact(val / pivotRow[i]);
+                            if (k != 0) {
+                                work.readRow(j, row);
+                                for (int l = i; l < columns; l++) {
+                                    row[l] = Math.addExact(row[l], Math.multiplyExact(k, pivotRow[l]));
+                                }
+                                work.writeRow(j, row);
+                            }
+                        }
+                    } while (modified == true && min != 1);
+                } while (rowExchanged == true);
+
+                diagonal[i] = work.get(i, i);
+            }
+        }
+
+        WideElimination.normalizeDiagonal(diagonal);
+        return WideElimination.toIntDiagonal(diagonal);
+    }
+
+    /**
+     * Returns the file holding the matrix.
+     *
+     * @return The file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getRowNbr() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int getColumnNbr() {
+        return columns;
+    }
+
+    /**
+     * Writes the modified elements back to the file and closes it. The
+     * matrix must not be used afterwards.
+     *
+     * @throws IOException If the file can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        for (final MappedByteBuffer buffer : mapped) {
+            buffer.force();
+        }
+        channel.close();
+    }
+
+    /**
+     * Copy of the matrix with {@code long} elements, mapped from a temporary
+     * file deleted when it is closed.
+     */
+    private final class WorkingCopy implements AutoCloseable {
+
+        private final Path workFile;
+        private final FileChannel workChannel;
+        private final LongBuffer[] workBlocks;
+        private final int workBlockRows;
+
+        /**
+         * Buffers holding one row each, used to copy and exchange rows.
+         */
+        private final long[] temp1, temp2;
+
+        /**
+         * Copies the matrix.
+         *
+         * @param modulus The modulus by which the elements are reduced, or
+         * {@code 0} to keep them.
+         *
+         * @throws IOException If the copy can't be written or mapped.
+         */
+        private WorkingCopy(final int modulus) throws IOException {
+            final Path parent = file.toAbsolutePath().getParent();
+            workFile = Files.createTempFile(parent, "work", ".tmp");
+            workChannel = FileChannel.open(workFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            workBlockRows = getBlockRows(rows, columns, Long.BYTES);
+            final MappedByteBuffer[] buffers = mapBlocks(workChannel, 0, rows, columns, Long.BYTES, workBlockRows);
+            workBlocks = new LongBuffer[buffers.length];
+            for (int b = 0; b < buffers.length; b++) {
+                workBlocks[b] = buffers[b].asLongBuffer();
+            }
+
+            temp1 = new long[columns];
+            temp2 = new long[columns];
+            for (int i = 0; i < rows; i++) {
+                final int[] source = MappedIntegerMatrix.this.getRow(i);
+                for (int j = 0; j < columns; j++) {
+                    temp1[j] = modulus == 0 ? source[j] : Math.floorMod(source[j], modulus);
+                }
+                writeRow(i, temp1);
+            }
+        }
+
+        /**
+         * Returns an element of the copy.
+         *
+         * @param i The row number.
+         * @param j The column number.
+         *
+         * @return The value of the (i,j) element.
+         */
+        private long get(final int i, final int j) {
+            return workBlocks[i / workBlockRows].get(i % workBlockRows * columns + j);
+        }
+
+        /**
+         * Reads a row of the copy.
+         *
+         * @param i The row number.
+         * @param row The array receiving the row.
+         */
+        private void readRow(final int i, final long[] row) {
+            final LongBuffer block = workBlocks[i / workBlockRows].duplicate();
+            block.position(i % workBlockRows * columns);
+            block.get(row, 0, columns);
+        }
+
+        /**
+         * Writes a row of the copy.
+         *
+         * @param i The row number.
+         * @param row The elements of the row.
+         */
+        private void writeRow(final int i, final long[] row) {
+            final LongBuffer block = workBlocks[i / workBlockRows].duplicate();
+            block.position(i % workBlockRows * columns);
+            block.put(row, 0, columns);
+        }
+
+        /**
+         * Exchanges two rows.
+         *
+         * @param row1 The first row index.
+         * @param row2 The second row index.
+         */
+        private void exchangeRows(final int row1, final int row2) {
+            readRow(row1, temp1);
+            readRow(row2, temp2);
+            writeRow(row1, temp2);
+            writeRow(row2, temp1);
+        }
+
+        /**
+         * Exchanges two columns in the rows from a certain one, the previous
+         * rows being null in both columns.
+         *
+         * @param column1 The first column index.
+         * @param column2 The second column index.
+         * @param firstRow The first row to modify.
+         */
+        private void exchangeColumns(final int column1, final int column2, final int firstRow) {
+            for (int i = firstRow; i < rows; i++) {
+                final LongBuffer block = workBlocks[i / workBlockRows];
+                final int offset = i % workBlockRows * columns;
+                final long temp = block.get(offset + column1);
+                block.put(offset + column1, block.get(offset + column2));
+                block.put(offset + column2, temp);
+            }
+        }
+
+        /**
+         * Adds to each column {@code j} after a pivot column the multiple
+         * {@code factors[j]} of the pivot column, in one pass over the rows
+         * from the pivot row, the previous rows being null in these columns.
+         *
+         * @param pivot The pivot row and column index.
+         * @param factors The multiple of the pivot column added to each
+         * following column.
+         * @param row An array of {@code columns} elements used as buffer.
+         *
+         * @throws ArithmeticException If the {@code long} arithmetic
+         * overflows.
+         */
+        private void addColumns(final int pivot, final long[] factors, final long[] row) {
+            for (int i = pivot; i < rows; i++) {
+                if (get(i, pivot) == 0) {
+                    continue;
+                }
+                readRow(i, row);
+                for (int j = pivot + 1; j < columns; j++) {
+                    row[j] = Math.addExact(row[j], Math.multiplyExact(factors[j], row[pivot]));
+                }
+                writeRow(i, row);
+            }
+        }
+
+        /**
+         * Closes and deletes the copy.
+         *
+         * @throws IOException If the file can't be deleted.
+         */
+        @Override
+        public void close() throws IOException {
+            workChannel.close();
+            Files.deleteIfExists(workFile);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package maths.matrix;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import maths.numbers.IntegerCalc;
+
+/**
+ * Static class computing the determinant of an integer matrix modulo word
+ * sized primes and rebuilding it with the chinese remainder theorem. The
+ * number of primes is chosen so that their product exceeds twice the
+ * Hadamard bound of the matrix, and the residues are computed in parallel.
+ *
+ * @author flo
+ */
+final class ModularDeterminant {
+
+    /**
+     * Primes are taken downward from this one, so each of them brings at
+     * least 30 bits.
+     */
+    private static final int FIRST_PRIME = Integer.MAX_VALUE;
+    private static final int BITS_PER_PRIME = 30;
+
+    /**
+     * Non instanciable class.
+     */
+    private ModularDeterminant() {
+    }
+
+    /**
+     * Gives the determinant of a square row-major matrix.
+     *
+     * @param matrix The elements of the matrix in row-major order.
+     * @param size The number of rows of the matrix.
+     *
+     * @return The determinant.
+     */
+    static BigInteger det(final int[] matrix, final int size) {
+        final double bound = getHadamardBits(matrix, size);
+        if (bound == Double.NEGATIVE_INFINITY) {
+            return BigInteger.ZERO;
+        }
+
+        final int[] primes = getPrimes((int) Math.ceil(bound) + 2);
+        final int[] residues = Arrays.stream(primes).parallel().map(prime -> det(matrix, size, prime)).toArray();
+
+        return reconstruct(residues, primes);
+    }
+
+    /**
+     * Gives the base two logarithm of the Hadamard bound of a square matrix,
+     * the product of the euclidean norms of its rows.
+     *
+     * @param matrix The elements of the matrix in row-major order.
+     * @param size The number of rows of the matrix.
+     *
+     * @return The logarithm of the bound, {@code -Infinity} if a row is null.
+     */
+    private static double getHadamardBits(final int[] matrix, final int size) {
+        double bits = 0;
+        for (int i = 0; i < size; i++) {
+            double norm = 0;
+            for (int j = i * size; j < (i + 1) * size; j++) {
+                norm += (double) matrix[j] * matrix[j];
+            }
+            bits += Math.log(norm) / (2 * Math.log(2));
+        }
+
+        return bits;
+    }
+
+    /**
+     * Gives the first primes downward from {@code FIRST_PRIME} whose product
+     * has at least a number of bits.
+     *
+     * @param bits The number of bits.
+     *
+     * @return The primes.
+     */
+    private static int[] getPrimes(final int bits) {
+        final int[] primes = new int[(bits + BITS_PER_PRIME - 1) / BITS_PER_PRIME];
+        int candidate = FIRST_PRIME;
+        for (int k = 0; k < primes.length; k++) {
+            while (!IntegerCalc.isPrime(candidate)) {
+                candidate -= 2;
+            }
+            primes[k] = candidate;
+            candidate -= 2;
+        }
+
+        return primes;
+    }
+
+    /**
+     * Gives the determinant of a square row-major matrix modulo a prime by
+     * gaussian elimination in the prime field.
+     *
+     * @param matrix The elements of the matrix in row-major order.
+     * @param size The number of rows of the matrix.
+     * @param prime The prime.
+     *
+     * @return The determinant modulo {@code prime}, in {@code [0, prime)}.
+     */
+    private static int det(final int[] matrix, final int size, final int prime) {
+        final int[] work = new int[matrix.length];
+        for (int k = 0; k < work.length; k++) {
+            final int val = matrix[k] % prime;
+            work[k] = val < 0 ? val + prime : val;
+        }
+
+        long det = 1;
+        for (int col = 0; col < size; col++) {
+            int pivotRow = col;
+            while (pivotRow < size && work[pivotRow * size + col] == 0) {
+                pivotRow++;
+            }
+            if (pivotRow == size) {
+                return 0;
+            }
+            if (pivotRow != col) {
+                for (int l = col; l < size; l++) {
+                    final int temp = work[pivotRow * size + l];
+                    work[pivotRow * size + l] = work[col * size + l];
+                    work[col * size + l] = temp;
+                }
+                det = prime - det;
+            }
+
+            final int pivotOffset = col * size;
+            final long pivot = work[pivotOffset + col];
+            det = det * pivot % prime;
+
+            long inverse = IntegerCalc.extendedEuclid(pivot, (long) prime)[1] % prime;
+            if (inverse < 0) {
+                inverse += prime;
+            }
+
+            for (int line = col + 1; line < size; line++) {
+                final int offset = line * size;
+                if (work[offset + col] == 0) {
+                    continue;
+                }
+                final long factor = prime - work[offset + col] * inverse % prime;
+                for (int l = col + 1; l < size; l++) {
+                    work[offset + l] = (int) ((work[offset + l] + factor * work[pivotOffset + l]) % prime);
+                }
+            }
+        }
+
+        return (int) det;
+    }
+
+    /**
+     * Rebuilds an integer from its residues with the chinese remainder
+     * theorem, in the symmetric range around zero.
+     *
+     * @param residues The residues.
+     * @param primes The distinct primes.
+     *
+     * @return The integer of absolute value less than half the product of
+     * the primes having these residues.
+     */
+    private static BigInteger reconstruct(final int[] residues, final int[] primes) {
+        BigInteger value = BigInteger.valueOf(residues[0]);
+        BigInteger modulus = BigInteger.valueOf(primes[0]);
+
+        for (int k = 1; k < primes.length; k++) {
+            final long prime = primes[k];
+            final BigInteger bigPrime = BigInteger.valueOf(prime);
+            final long modulusInverse = IntegerCalc.extendedEuclid(modulus.mod(bigPrime).longValue(), prime)[1];
+            long step = (residues[k] - value.mod(bigPrime).longValue()) * (modulusInverse % prime) % prime;
+            if (step < 0) {
+                step += prime;
+            }
+
+            value = value.add(modulus.multiply(BigInteger.valueOf(step)));
+            modulus = modulus.multiply(bigPrime);
+        }
+
+        return value.compareTo(modulus.shiftRight(1)) > 0 ? value.subtract(modulus) : value;
+    }
+}
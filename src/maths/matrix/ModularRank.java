@@ -0,0 +1,78 @@
+package maths.matrix;
+
+import maths.numbers.IntegerCalc;
+
+/**
+ * Static class computing ranks of integer matrices over prime fields.
+ *
+ * @author flo
+ */
+final class ModularRank {
+
+    /**
+     * Non instanciable class.
+     */
+    private ModularRank() {
+    }
+
+    /**
+     * Gives the rank of a row-major matrix over the field with {@code prime}
+     * elements. Entries are reduced once in a working copy, the row operations
+     * don't allocate and intermediate products stay in a {@code long}.
+     *
+     * @param matrix The elements of the matrix in row-major order.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param prime The characteristic of the field.
+     *
+     * @return The rank of the matrix modulo {@code prime}.
+     */
+    static int rank(final int[] matrix, final int rows, final int columns, final int prime) {
+        final int[] work = new int[matrix.length];
+        for (int k = 0; k < work.length; k++) {
+            final int val = matrix[k] % prime;
+            work[k] = val < 0 ? val + prime : val;
+        }
+
+        int rank = 0;
+        for (int col = 0; col < columns && rank < rows; col++) {
+            int pivotRow = -1;
+            for (int line = rank; line < rows; line++) {
+                if (work[line * columns + col] != 0) {
+                    pivotRow = line;
+                    break;
+                }
+            }
+            if (pivotRow == -1) {
+                continue;
+            }
+            if (pivotRow != rank) {
+                for (int l = col; l < columns; l++) {
+                    final int temp = work[pivotRow * columns + l];
+                    work[pivotRow * columns + l] = work[rank * columns + l];
+                    work[rank * columns + l] = temp;
+                }
+            }
+
+            final int pivotOffset = rank * columns;
+            long inverse = IntegerCalc.extendedEuclid(work[pivotOffset + col], (long) prime)[1] % prime;
+            if (inverse < 0) {
+                inverse += prime;
+            }
+
+            for (int line = rank + 1; line < rows; line++) {
+                final int offset = line * columns;
+                if (work[offset + col] == 0) {
+                    continue;
+                }
+                final long factor = prime - work[offset + col] * inverse % prime;
+                for (int l = col; l < columns; l++) {
+                    work[offset + l] = (int) ((work[offset + l] + factor * work[pivotOffset + l]) % prime);
+                }
+            }
+            rank++;
+        }
+
+        return rank;
+    }
+}
@@ -0,0 +1,239 @@
+package maths.matrix;
+
+import java.math.BigInteger;
+import maths.numbers.IntegerCalc;
+
+/**
+ * Static class computing the invariant factors of a full rank integer matrix
+ * modulo a multiple of its lattice determinant, in the way of Hafner and
+ * McCurley. If the matrix has {@code m <= n} rows, any non zero {@code m}
+ * minor {@code d} is such that the columns of {@code d.I} are in the lattice
+ * spanned by the columns of the matrix. Adding them doesn't change the
+ * Smith normal form, and allows every element to be reduced modulo
+ * {@code d}: the elimination is done with elements in {@code [0, d)} and the
+ * invariant factors are the gcd of the diagonal elements with {@code d}.
+ *
+ * @author flo
+ */
+final class ModularSNF {
+
+    /**
+     * Prime used to find independent columns.
+     */
+    private static final int PRIME = Integer.MAX_VALUE;
+
+    /**
+     * Non instanciable class.
+     */
+    private ModularSNF() {
+    }
+
+    /**
+     * Gives the invariant factors of a row-major matrix, if it has full rank
+     * and if a non zero maximal minor fits in an {@code int}.
+     *
+     * @param matrix The elements of the matrix in row-major order.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     *
+     * @return The invariant factors in increasing divisibility order, or
+     * {@code null} if the matrix doesn't have full rank or if the minor is
+     * too big.
+     */
+    static int[] invariantFactors(final int[] matrix, final int rows, final int columns) {
+        if (rows > columns) {
+            final int[] transposed = new int[matrix.length];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    transposed[j * rows + i] = matrix[i * columns + j];
+                }
+            }
+            return invariantFactors(transposed, columns, rows);
+        }
+        if (rows == 0) {
+            return new int[0];
+        }
+
+        final int[] minor = getMaximalMinor(matrix, rows, columns);
+        if (minor == null) {
+            return null;
+        }
+        final BigInteger det = ModularDeterminant.det(minor, rows).abs();
+        if (det.signum() == 0 || det.bitLength() > 31) {
+            return null;
+        }
+
+        final long modulus = det.longValue();
+        final long[] work = new long[matrix.length];
+        for (int k = 0; k < work.length; k++) {
+            work[k] = Math.floorMod(matrix[k], modulus);
+        }
+
+        final long[] diagonal = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            boolean cleared = false;
+            while (!cleared) {
+                for (int k = i + 1; k < rows; k++) {
+                    if (work[k * columns + i] != 0) {
+                        combineRows(work, columns, i, k, modulus);
+                    }
+                }
+                for (int j = i + 1; j < columns; j++) {
+                    if (work[i * columns + j] != 0) {
+                        combineColumns(work, rows, columns, i, j, modulus);
+                    }
+                }
+
+                cleared = true;
+                for (int k = i + 1; k < rows && cleared; k++) {
+                    cleared = work[k * columns + i] == 0;
+                }
+            }
+            diagonal[i] = IntegerCalc.extendedEuclid(work[i * columns + i], modulus)[0];
+        }
+
+        WideElimination.normalizeDiagonal(diagonal);
+        return WideElimination.toIntDiagonal(diagonal);
+    }
+
+    /**
+     * Gives the columns of a maximal minor which is not null modulo
+     * {@code PRIME}, found by gaussian elimination in the prime field.
+     *
+     * @param matrix The elements of the matrix in row-major order.
+     * @param rows The number of rows, at most the number of columns.
+     * @param columns The number of columns.
+     *
+     * @return The square minor in row-major order, or {@code null} if the
+     * rank modulo {@code PRIME} is less than the number of rows.
+     */
+    private static int[] getMaximalMinor(final int[] matrix, final int rows, final int columns) {
+        final long[] work = new long[matrix.length];
+        for (int k = 0; k < work.length; k++) {
+            work[k] = Math.floorMod(matrix[k], PRIME);
+        }
+
+        final int[] pivotColumns = new int[rows];
+        int rank = 0;
+        for (int col = 0; col < columns && rank < rows; col++) {
+            int pivotRow = rank;
+            while (pivotRow < rows && work[pivotRow * columns + col] == 0) {
+                pivotRow++;
+            }
+            if (pivotRow == rows) {
+                continue;
+            }
+            for (int l = col; l < columns; l++) {
+                final long temp = work[pivotRow * columns + l];
+                work[pivotRow * columns + l] = work[rank * columns + l];
+                work[rank * columns + l] = temp;
+            }
+
+            final int pivotOffset = rank * columns;
+            final long inverse = Math.floorMod(IntegerCalc.extendedEuclid(work[pivotOffset + col], PRIME)[1], PRIME);
+            for (int line = rank + 1; line < rows; line++) {
+                final int offset = line * columns;
+                if (work[offset + col] == 0) {
+                    continue;
+                }
+                final long factor = PRIME - work[offset + col] * inverse % PRIME;
+                for (int l = col; l < columns; l++) {
+                    work[offset + l] = (work[offset + l] + factor * work[pivotOffset + l]) % PRIME;
+                }
+            }
+            pivotColumns[rank++] = col;
+        }
+        if (rank < rows) {
+            return null;
+        }
+
+        final int[] minor = new int[rows * rows];
+        for (int i = 0; i < rows; i++) {
+            for (int k = 0; k < rows; k++) {
+                minor[i * rows + k] = matrix[i * columns + pivotColumns[k]];
+            }
+        }
+
+        return minor;
+    }
+
+    /**
+     * Replaces the pivot row and another one by unimodular combinations of
+     * them, so that the pivot becomes the gcd of their elements in the pivot
+     * column and the other element vanishes. The rows are null before the
+     * pivot column.
+     *
+     * @param work The elements of the matrix in row-major order, in
+     * {@code [0, modulus)}.
+     * @param columns The number of columns.
+     * @param pivot The pivot row and column index.
+     * @param row The other row index.
+     * @param modulus The modulus.
+     */
+    private static void combineRows(final long[] work, final int columns, final int pivot, final int row,
+            final long modulus) {
+        final long[] coefficients = getCombination(work[pivot * columns + pivot], work[row * columns + pivot],
+                modulus);
+        final int offset1 = pivot * columns;
+        final int offset2 = row * columns;
+        for (int l = pivot; l < columns; l++) {
+            final long val1 = work[offset1 + l];
+            final long val2 = work[offset2 + l];
+            work[offset1 + l] = (coefficients[0] * val1 % modulus + coefficients[1] * val2 % modulus) % modulus;
+            work[offset2 + l] = (coefficients[2] * val1 % modulus + coefficients[3] * val2 % modulus) % modulus;
+        }
+    }
+
+    /**
+     * Replaces the pivot column and another one by unimodular combinations of
+     * them, so that the pivot becomes the gcd of their elements in the pivot
+     * row and the other element vanishes. The columns are null above the
+     * pivot row.
+     *
+     * @param work The elements of the matrix in row-major order, in
+     * {@code [0, modulus)}.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param pivot The pivot row and column index.
+     * @param column The other column index.
+     * @param modulus The modulus.
+     */
+    private static void combineColumns(final long[] work, final int rows, final int columns, final int pivot,
+            final int column, final long modulus) {
+        final long[] coefficients = getCombination(work[pivot * columns + pivot], work[pivot * columns + column],
+                modulus);
+        for (int l = pivot; l < rows; l++) {
+            final long val1 = work[l * columns + pivot];
+            final long val2 = work[l * columns + column];
+            work[l * columns + pivot] = (coefficients[0] * val1 % modulus + coefficients[1] * val2 % modulus)
+                    % modulus;
+            work[l * columns + column] = (coefficients[2] * val1 % modulus + coefficients[3] * val2 % modulus)
+                    % modulus;
+        }
+    }
+
+    /**
+     * Gives a unimodular matrix {@code (s t ; u v)} sending {@code (a, b)} to
+     * {@code (gcd(a, b), 0)}, its elements reduced in {@code [0, modulus)}.
+     *
+     * @param a The pivot, in {@code [0, modulus)}.
+     * @param b The non zero element to clear, in {@code [0, modulus)}.
+     * @param modulus The modulus.
+     *
+     * @return The elements {@code s, t, u, v}.
+     */
+    private static long[] getCombination(final long a, final long b, final long modulus) {
+        if (a == 0) {
+            return new long[]{0, 1, 1, 0};
+        }
+        if (b % a == 0) {
+            return new long[]{1, 0, modulus - b / a % modulus, 1};
+        }
+
+        final long[] euclid = IntegerCalc.extendedEuclid(a, b);
+        final long gcd = euclid[0];
+
+        return new long[]{Math.floorMod(euclid[1], modulus), Math.floorMod(euclid[2], modulus),
+            Math.floorMod(-b / gcd, modulus), Math.floorMod(a / gcd, modulus)};
+    }
+}
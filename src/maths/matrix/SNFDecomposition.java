@@ -0,0 +1,695 @@
+package maths.matrix;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Class computing the Smith normal form {@code D = U.A.V} of a matrix and
+ * keeping the unimodular matrices {@code U} and {@code V} as the lists of
+ * the elementary row and column operations of the elimination. The
+ * transformations and their inverses are applied to vectors on demand,
+ * without building the dense matrices. The elimination uses exact
+ * {@code long} arithmetic. The quotients are rounded to the nearest integer
+ * to keep the coefficients small, but those of {@code U} and {@code V} can
+ * still grow far beyond the elements of the matrix: the transformations are
+ * replayed in {@code long} arithmetic, and again with {@code BigInteger} if
+ * it overflows.
+ *
+ * @author flo
+ */
+public final class SNFDecomposition {
+
+    private final int rows, columns;
+    private final long[] diagonal;
+    private final int rank;
+    private final OperationLog rowOperations = new OperationLog();
+    private final OperationLog columnOperations = new OperationLog();
+
+    /**
+     * Computes the Smith normal form of a matrix and records its
+     * transformations.
+     *
+     * @param matrix The matrix.
+     *
+     * @throws ArithmeticException If the {@code long} arithmetic overflows or
+     * if the matrix has more than {@code Integer.MAX_VALUE} elements.
+     */
+    public SNFDecomposition(final IntegerMatrix matrix) {
+        rows = matrix.getRowNbr();
+        columns = matrix.getColumnNbr();
+
+        final long[] work = new long[Math.multiplyExact(rows, columns)];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                work[i * columns + j] = matrix.getij(i, j);
+            }
+        }
+
+        final int length = Math.min(rows, columns);
+        int pivotNbr = 0;
+        while (pivotNbr < length && reducePivot(work, pivotNbr)) {
+            pivotNbr++;
+        }
+
+        rank = pivotNbr;
+        diagonal = new long[rank];
+        for (int t = 0; t < rank; t++) {
+            diagonal[t] = work[t * columns + t];
+        }
+    }
+
+    /**
+     * Brings the smallest non zero element of the remaining submatrix at
+     * {@code (t,t)}, clears its row and column and makes it divide the
+     * remaining submatrix.
+     *
+     * @param work The working matrix, in row-major order.
+     * @param t The index of the pivot.
+     *
+     * @return {@code false} if the remaining submatrix is null.
+     */
+    private boolean reducePivot(final long[] work, final int t) {
+        int pivotRow = -1, pivotColumn = -1;
+        long min = 0;
+        for (int i = t; i < rows && min != 1; i++) {
+            for (int j = t; j < columns; j++) {
+                final long val = WideElimination.absExact(work[i * columns + j]);
+                if (val != 0 && (min == 0 || val < min)) {
+                    min = val;
+                    pivotRow = i;
+                    pivotColumn = j;
+                    if (min == 1) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (min == 0) {
+            return false;
+        }
+        swapRows(work, t, pivotRow);
+        swapColumns(work, t, pivotColumn);
+
+        boolean reduced = false;
+        while (!reduced) {
+            final long pivot = work[t * columns + t];
+            int remainderRow = -1, remainderColumn = -1;
+            long remainderMin = WideElimination.absExact(pivot);
+
+            for (int i = t + 1; i < rows; i++) {
+                final long val = work[i * columns + t];
+                if (val != 0) {
+                    addRow(work, i, t, Math.negateExact(getQuotient(val, pivot)));
+                    final long remainder = WideElimination.absExact(work[i * columns + t]);
+                    if (remainder != 0 && remainder < remainderMin) {
+                        remainderMin = remainder;
+                        remainderRow = i;
+                    }
+                }
+            }
+            for (int j = t + 1; j < columns; j++) {
+                final long val = work[t * columns + j];
+                if (val != 0) {
+                    addColumn(work, j, t, Math.negateExact(getQuotient(val, pivot)));
+                    final long remainder = WideElimination.absExact(work[t * columns + j]);
+                    if (remainder != 0 && remainder < remainderMin) {
+                        remainderMin = remainder;
+                        remainderColumn = j;
+                        remainderRow = -1;
+                    }
+                }
+            }
+
+            if (remainderColumn != -1) {
+                swapColumns(work, t, remainderColumn);
+            } else if (remainderRow != -1) {
+                swapRows(work, t, remainderRow);
+            } else {
+                reduced = true;
+                for (int i = t + 1; i < rows && reduced; i++) {
+                    for (int j = t + 1; j < columns; j++) {
+                        if (work[i * columns + j] % pivot != 0) {
+                            addRow(work, t, i, 1);
+                            reduced = false;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (work[t * columns + t] < 0) {
+            rowOperations.add(OperationLog.NEGATE, t, t, 0);
+            for (int j = t; j < columns; j++) {
+                work[t * columns + j] = Math.negateExact(work[t * columns + j]);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gives the quotient of two integers rounded to the nearest integer, so
+     * that the remainder is at most half the divisor in absolute value.
+     *
+     * @param a The dividend.
+     * @param b The non zero divisor.
+     *
+     * @return The rounded quotient.
+     *
+     * @throws ArithmeticException If an absolute value or the quotient
+     * doesn't fit in a {@code long}.
+     */
+    private static long getQuotient(final long a, final long b) {
+        final long quotient = a / b;
+        final long remainder = WideElimination.absExact(a % b);
+        if (remainder > WideElimination.absExact(b) - remainder) {
+            return (a < 0) == (b < 0) ? Math.incrementExact(quotient) : Math.decrementExact(quotient);
+        }
+
+        return quotient;
+    }
+
+    /**
+     * Exchanges two rows of the working matrix and records it.
+     *
+     * @param work The working matrix.
+     * @param row1 The first row index.
+     * @param row2 The second row index.
+     */
+    private void swapRows(final long[] work, final int row1, final int row2) {
+        if (row1 == row2) {
+            return;
+        }
+        rowOperations.add(OperationLog.SWAP, row1, row2, 0);
+        for (int l = 0; l < columns; l++) {
+            final long temp = work[row1 * columns + l];
+            work[row1 * columns + l] = work[row2 * columns + l];
+            work[row2 * columns + l] = temp;
+        }
+    }
+
+    /**
+     * Exchanges two columns of the working matrix and records it.
+     *
+     * @param work The working matrix.
+     * @param column1 The first column index.
+     * @param column2 The second column index.
+     */
+    private void swapColumns(final long[] work, final int column1, final int column2) {
+        if (column1 == column2) {
+            return;
+        }
+        columnOperations.add(OperationLog.SWAP, column1, column2, 0);
+        for (int l = 0; l < work.length; l += columns) {
+            final long temp = work[l + column1];
+            work[l + column1] = work[l + column2];
+            work[l + column2] = temp;
+        }
+    }
+
+    /**
+     * Adds a multiple of a row to another one in the working matrix and
+     * records it.
+     *
+     * @param work The working matrix.
+     * @param row1 The row index in wich we add a multiple of the second one.
+     * @param row2 The second row index.
+     * @param k The integer.
+     */
+    private void addRow(final long[] work, final int row1, final int row2, final long k) {
+        rowOperations.add(OperationLog.ADD, row1, row2, k);
+        for (int l = 0; l < columns; l++) {
+            work[row1 * columns + l] = Math.addExact(work[row1 * columns + l],
+                    Math.multiplyExact(k, work[row2 * columns + l]));
+        }
+    }
+
+    /**
+     * Adds a multiple of a column to another one in the working matrix and
+     * records it.
+     *
+     * @param work The working matrix.
+     * @param column1 The column index in wich we add a multiple of the
+     * second one.
+     * @param column2 The second column index.
+     * @param k The integer.
+     */
+    private void addColumn(final long[] work, final int column1, final int column2, final long k) {
+        columnOperations.add(OperationLog.ADD, column1, column2, k);
+        for (int l = 0; l < work.length; l += columns) {
+            work[l + column1] = Math.addExact(work[l + column1], Math.multiplyExact(k, work[l + column2]));
+        }
+    }
+
+    /**
+     * Gives {@code U.vector}.
+     *
+     * @param vector A vector of size the number of rows of the matrix.
+     *
+     * @return The transformed vector.
+     *
+     * @throws ArithmeticException If an element of the result doesn't fit in
+     * a {@code long}.
+     */
+    public long[] applyU(final long[] vector) {
+        try {
+            final long[] result = vector.clone();
+            for (int k = 0; k < rowOperations.size; k++) {
+                rowOperations.applyRow(k, result, false);
+            }
+            return result;
+        } catch (final ArithmeticException ex) {
+            return toLongArray(applyU(toBigArray(vector)));
+        }
+    }
+
+    /**
+     * Gives {@code U.vector}.
+     *
+     * @param vector A vector of size the number of rows of the matrix.
+     *
+     * @return The transformed vector.
+     */
+    public BigInteger[] applyU(final BigInteger[] vector) {
+        final BigInteger[] result = vector.clone();
+        for (int k = 0; k < rowOperations.size; k++) {
+            rowOperations.applyRow(k, result, false);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gives {@code U^-1.vector}.
+     *
+     * @param vector A vector of size the number of rows of the matrix.
+     *
+     * @return The transformed vector.
+     *
+     * @throws ArithmeticException If an element of the result doesn't fit in
+     * a {@code long}.
+     */
+    public long[] applyUInverse(final long[] vector) {
+        try {
+            final long[] result = vector.clone();
+            for (int k = rowOperations.size - 1; k >= 0; k--) {
+                rowOperations.applyRow(k, result, true);
+            }
+            return result;
+        } catch (final ArithmeticException ex) {
+            return toLongArray(applyUInverse(toBigArray(vector)));
+        }
+    }
+
+    /**
+     * Gives {@code U^-1.vector}.
+     *
+     * @param vector A vector of size the number of rows of the matrix.
+     *
+     * @return The transformed vector.
+     */
+    public BigInteger[] applyUInverse(final BigInteger[] vector) {
+        final BigInteger[] result = vector.clone();
+        for (int k = rowOperations.size - 1; k >= 0; k--) {
+            rowOperations.applyRow(k, result, true);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gives {@code V.vector}.
+     *
+     * @param vector A vector of size the number of columns of the matrix.
+     *
+     * @return The transformed vector.
+     *
+     * @throws ArithmeticException If an element of the result doesn't fit in
+     * a {@code long}.
+     */
+    public long[] applyV(final long[] vector) {
+        try {
+            final long[] result = vector.clone();
+            for (int k = columnOperations.size - 1; k >= 0; k--) {
+                columnOperations.applyColumn(k, result, false);
+            }
+            return result;
+        } catch (final ArithmeticException ex) {
+            return toLongArray(applyV(toBigArray(vector)));
+        }
+    }
+
+    /**
+     * Gives {@code V.vector}.
+     *
+     * @param vector A vector of size the number of columns of the matrix.
+     *
+     * @return The transformed vector.
+     */
+    public BigInteger[] applyV(final BigInteger[] vector) {
+        final BigInteger[] result = vector.clone();
+        for (int k = columnOperations.size - 1; k >= 0; k--) {
+            columnOperations.applyColumn(k, result, false);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gives {@code V^-1.vector}.
+     *
+     * @param vector A vector of size the number of columns of the matrix.
+     *
+     * @return The transformed vector.
+     *
+     * @throws ArithmeticException If an element of the result doesn't fit in
+     * a {@code long}.
+     */
+    public long[] applyVInverse(final long[] vector) {
+        try {
+            final long[] result = vector.clone();
+            for (int k = 0; k < columnOperations.size; k++) {
+                columnOperations.applyColumn(k, result, true);
+            }
+            return result;
+        } catch (final ArithmeticException ex) {
+            return toLongArray(applyVInverse(toBigArray(vector)));
+        }
+    }
+
+    /**
+     * Gives {@code V^-1.vector}.
+     *
+     * @param vector A vector of size the number of columns of the matrix.
+     *
+     * @return The transformed vector.
+     */
+    public BigInteger[] applyVInverse(final BigInteger[] vector) {
+        final BigInteger[] result = vector.clone();
+        for (int k = 0; k < columnOperations.size; k++) {
+            columnOperations.applyColumn(k, result, true);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gives a column of {@code V}. The columns from the rank onward are a
+     * basis of the kernel of the matrix.
+     *
+     * @param j The column index.
+     *
+     * @return The column.
+     *
+     * @throws ArithmeticException If an element of the column doesn't fit in
+     * a {@code long}.
+     */
+    public long[] getVColumn(final int j) {
+        final long[] vector = new long[columns];
+        vector[j] = 1;
+
+        return applyV(vector);
+    }
+
+    /**
+     * Gives a column of {@code V}, whose elements may not fit in a
+     * {@code long}.
+     *
+     * @param j The column index.
+     *
+     * @return The column.
+     */
+    public BigInteger[] getBigVColumn(final int j) {
+        final BigInteger[] vector = new BigInteger[columns];
+        Arrays.fill(vector, BigInteger.ZERO);
+        vector[j] = BigInteger.ONE;
+
+        return applyV(vector);
+    }
+
+    /**
+     * Gives a column of {@code U^-1}. The columns before the rank, multiplied
+     * by the invariant factors, are a basis of the image of the matrix.
+     *
+     * @param i The column index.
+     *
+     * @return The column.
+     *
+     * @throws ArithmeticException If an element of the column doesn't fit in
+     * a {@code long}.
+     */
+    public long[] getUInverseColumn(final int i) {
+        final long[] vector = new long[rows];
+        vector[i] = 1;
+
+        return applyUInverse(vector);
+    }
+
+    /**
+     * Gives a column of {@code U^-1}, whose elements may not fit in a
+     * {@code long}.
+     *
+     * @param i The column index.
+     *
+     * @return The column.
+     */
+    public BigInteger[] getBigUInverseColumn(final int i) {
+        final BigInteger[] vector = new BigInteger[rows];
+        Arrays.fill(vector, BigInteger.ZERO);
+        vector[i] = BigInteger.ONE;
+
+        return applyUInverse(vector);
+    }
+
+    /**
+     * Returns the number of rows of the matrix.
+     *
+     * @return The number of rows.
+     */
+    public int getRowNbr() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the matrix.
+     *
+     * @return The number of columns.
+     */
+    public int getColumnNbr() {
+        return columns;
+    }
+
+    /**
+     * Returns the rank of the matrix.
+     *
+     * @return The number of non zero invariant factors.
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    /**
+     * Returns the non zero invariant factors of the matrix.
+     *
+     * @return The invariant factors, in increasing divisibility order.
+     */
+    public long[] getInvariantFactors() {
+        return diagonal.clone();
+    }
+
+    /**
+     * Returns the number of recorded elementary operations.
+     *
+     * @return The number of row and column operations.
+     */
+    public int getOperationNbr() {
+        return rowOperations.size + columnOperations.size;
+    }
+
+    /**
+     * Converts a vector to {@code BigInteger}.
+     *
+     * @param vector The vector.
+     *
+     * @return The converted vector.
+     */
+    private static BigInteger[] toBigArray(final long[] vector) {
+        final BigInteger[] big = new BigInteger[vector.length];
+        for (int k = 0; k < vector.length; k++) {
+            big[k] = BigInteger.valueOf(vector[k]);
+        }
+
+        return big;
+    }
+
+    /**
+     * Converts a vector to {@code long}.
+     *
+     * @param vector The vector.
+     *
+     * @return The converted vector.
+     *
+     * @throws ArithmeticException If an element doesn't fit in a
+     * {@code long}.
+     */
+    private static long[] toLongArray(final BigInteger[] vector) {
+        final long[] result = new long[vector.length];
+        for (int k = 0; k < vector.length; k++) {
+            result[k] = vector[k].longValueExact();
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + columns + " " + Arrays.toString(diagonal) + " " + getOperationNbr() + " operations";
+    }
+
+    /**
+     * List of elementary operations stored in parallel arrays.
+     */
+    private static final class OperationLog {
+
+        private static final byte SWAP = 0;
+        private static final byte ADD = 1;
+        private static final byte NEGATE = 2;
+
+        private byte[] kinds = new byte[16];
+        private int[] firsts = new int[16];
+        private int[] seconds = new int[16];
+        private long[] factors = new long[16];
+        private int size = 0;
+
+        /**
+         * Appends an operation.
+         *
+         * @param kind The kind of operation.
+         * @param first The modified index.
+         * @param second The other index.
+         * @param factor The factor of an addition.
+         */
+        private void add(final byte kind, final int first, final int second, final long factor) {
+            if (size == kinds.length) {
+                final int capacity = 2 * size;
+                kinds = Arrays.copyOf(kinds, capacity);
+                firsts = Arrays.copyOf(firsts, capacity);
+                seconds = Arrays.copyOf(seconds, capacity);
+                factors = Arrays.copyOf(factors, capacity);
+            }
+            kinds[size] = kind;
+            firsts[size] = first;
+            seconds[size] = second;
+            factors[size] = factor;
+            size++;
+        }
+
+        /**
+         * Applies the matrix of a row operation, or its inverse, to a vector.
+         * Adding {@code k} times row {@code second} to row {@code first}
+         * adds {@code k} times coordinate {@code second} to coordinate
+         * {@code first}.
+         *
+         * @param k The index of the operation.
+         * @param vector The vector, modified.
+         * @param inverse {@code true} to apply the inverse operation.
+         */
+        private void applyRow(final int k, final long[] vector, final boolean inverse) {
+            apply(k, vector, inverse, firsts[k], seconds[k]);
+        }
+
+        /**
+         * Applies the matrix of a row operation, or its inverse, to a
+         * {@code BigInteger} vector.
+         *
+         * @param k The index of the operation.
+         * @param vector The vector, modified.
+         * @param inverse {@code true} to apply the inverse operation.
+         */
+        private void applyRow(final int k, final BigInteger[] vector, final boolean inverse) {
+            apply(k, vector, inverse, firsts[k], seconds[k]);
+        }
+
+        /**
+         * Applies the matrix of a column operation, or its inverse, to a
+         * vector. Adding {@code k} times column {@code second} to column
+         * {@code first} adds {@code k} times coordinate {@code first} to
+         * coordinate {@code second}.
+         *
+         * @param k The index of the operation.
+         * @param vector The vector, modified.
+         * @param inverse {@code true} to apply the inverse operation.
+         */
+        private void applyColumn(final int k, final long[] vector, final boolean inverse) {
+            apply(k, vector, inverse, seconds[k], firsts[k]);
+        }
+
+        /**
+         * Applies the matrix of a column operation, or its inverse, to a
+         * {@code BigInteger} vector.
+         *
+         * @param k The index of the operation.
+         * @param vector The vector, modified.
+         * @param inverse {@code true} to apply the inverse operation.
+         */
+        private void applyColumn(final int k, final BigInteger[] vector, final boolean inverse) {
+            apply(k, vector, inverse, seconds[k], firsts[k]);
+        }
+
+        /**
+         * Applies an operation to a vector.
+         *
+         * @param k The index of the operation.
+         * @param vector The vector, modified.
+         * @param inverse {@code true} to apply the inverse operation.
+         * @param target The modified coordinate of an addition.
+         * @param source The added coordinate of an addition.
+         */
+        private void apply(final int k, final long[] vector, final boolean inverse, final int target,
+                final int source) {
+            switch (kinds[k]) {
+                case SWAP:
+                    final long temp = vector[target];
+                    vector[target] = vector[source];
+                    vector[source] = temp;
+                    break;
+                case ADD:
+                    final long product = Math.multiplyExact(factors[k], vector[source]);
+                    vector[target] = inverse ? Math.subtractExact(vector[target], product)
+                            : Math.addExact(vector[target], product);
+                    break;
+                default:
+                    vector[target] = Math.negateExact(vector[target]);
+                    break;
+            }
+        }
+
+        /**
+         * Applies an operation to a {@code BigInteger} vector.
+         *
+         * @param k The index of the operation.
+         * @param vector The vector, modified.
+         * @param inverse {@code true} to apply the inverse operation.
+         * @param target The modified coordinate of an addition.
+         * @param source The added coordinate of an addition.
+         */
+        private void apply(final int k, final BigInteger[] vector, final boolean inverse, final int target,
+                final int source) {
+            switch (kinds[k]) {
+                case SWAP:
+                    final BigInteger temp = vector[target];
+                    vector[target] = vector[source];
+                    vector[source] = temp;
+                    break;
+                case ADD:
+                    final BigInteger product = vector[source].multiply(BigInteger.valueOf(factors[k]));
+                    vector[target] = inverse ? vector[target].subtract(product) : vector[target].add(product);
+                    break;
+                default:
+                    vector[target] = vector[target].negate();
+                    break;
+            }
+        }
+    }
+}
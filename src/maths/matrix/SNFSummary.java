@@ -0,0 +1,99 @@
+package maths.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Class summarizing the Smith normal form of a matrix by its size and its
+ * invariant factors, without storing the diagonal matrix itself.
+ *
+ * @author flo
+ */
+public final class SNFSummary {
+
+    /**
+     * Summary of the empty matrix.
+     */
+    public static final SNFSummary EMPTY = new SNFSummary(0, 0, new int[0]);
+
+    private final int rows, columns;
+    private final int[] factors;
+
+    /**
+     * Creates a summary.
+     *
+     * @param rows The number of rows of the matrix.
+     * @param columns The number of columns of the matrix.
+     * @param factors The non zero invariant factors, in increasing
+     * divisibility order. The array is not copied.
+     */
+    SNFSummary(final int rows, final int columns, final int[] factors) {
+        this.rows = rows;
+        this.columns = columns;
+        this.factors = factors;
+    }
+
+    /**
+     * Returns the number of rows of the matrix.
+     *
+     * @return The number of rows.
+     */
+    public int getRowNbr() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the matrix.
+     *
+     * @return The number of columns.
+     */
+    public int getColumnNbr() {
+        return columns;
+    }
+
+    /**
+     * Returns the rank of the matrix.
+     *
+     * @return The number of non zero invariant factors.
+     */
+    public int getRank() {
+        return factors.length;
+    }
+
+    /**
+     * Returns the non zero invariant factors of the matrix.
+     *
+     * @return The invariant factors, in increasing divisibility order.
+     */
+    public int[] getInvariantFactors() {
+        return factors.clone();
+    }
+
+    /**
+     * Returns the invariant factors greater than one, which are the torsion
+     * coefficients of the cokernel of the matrix.
+     *
+     * @return The torsion coefficients, in increasing divisibility order.
+     */
+    public int[] getTorsion() {
+        int units = 0;
+        while (units < factors.length && factors[units] == 1) {
+            units++;
+        }
+
+        return Arrays.copyOfRange(factors, units, factors.length);
+    }
+
+    /**
+     * Tells if the matrix is empty, that is has neither rows nor columns.
+     *
+     * @return {@code true} if the matrix is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return rows == 0 && columns == 0;
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + columns + " " + Arrays.toString(factors);
+    }
+}
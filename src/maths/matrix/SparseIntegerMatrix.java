@@ -0,0 +1,1190 @@
+package maths.matrix;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import maths.exceptions.MathsArgumentException;
+
+/**
+ * Class representing a sparse integer matrix, stored column by column with
+ * sorted row indices.
+ *
+ * @author flo
+ */
+public final class SparseIntegerMatrix {
+
+    public static final SparseIntegerMatrix EMPTY = new SparseIntegerMatrix(0, new int[0][], new int[0][], 0);
+
+    private final int[][] indices;
+    private final int[][] values;
+    private final int columns, rows, nonZeroNbr;
+
+    /**
+     * Private constructor, arrays are not checked nor copied.
+     *
+     * @param rows The number of rows.
+     * @param indices The sorted row indices of each column.
+     * @param values The non zero values of each column.
+     * @param nonZeroNbr The number of non zero entries.
+     */
+    private SparseIntegerMatrix(final int rows, final int[][] indices, final int[][] values, final int nonZeroNbr) {
+        this.rows = rows;
+        this.columns = indices.length;
+        this.indices = indices;
+        this.values = values;
+        this.nonZeroNbr = nonZeroNbr;
+    }
+
+    /**
+     * Create a sparse matrix from its columns.
+     *
+     * @param rows The number of rows.
+     * @param indices For each column, the strictly increasing row indices of
+     * its non zero entries.
+     * @param values For each column, the values matching {@code indices}.
+     *
+     * @throws MathsArgumentException If the arrays don't describe a valid
+     * sparse matrix.
+     */
+    public SparseIntegerMatrix(final int rows, final int[][] indices, final int[][] values) throws MathsArgumentException {
+        if (rows < 0) {
+            throw new MathsArgumentException("The number of rows must be positive.");
+        }
+        if (indices.length != values.length) {
+            throw new MathsArgumentException("Indices and values must have the same number of columns.");
+        }
+
+        this.rows = rows;
+        columns = indices.length;
+        this.indices = new int[columns][];
+        this.values = new int[columns][];
+
+        int count = 0;
+        for (int j = 0; j < columns; j++) {
+            final int[] index = indices[j];
+            final int[] value = values[j];
+            if (index.length != value.length) {
+                throw new MathsArgumentException("Indices and values must have the same length in each column.");
+            }
+
+            int size = 0;
+            for (int k = 0; k < index.length; k++) {
+                if (index[k] < 0 || index[k] >= rows || (k > 0 && index[k] <= index[k - 1])) {
+                    throw new MathsArgumentException("Row indices must be strictly increasing and in range.");
+                }
+                if (value[k] != 0) {
+                    size++;
+                }
+            }
+
+            this.indices[j] = new int[size];
+            this.values[j] = new int[size];
+            size = 0;
+            for (int k = 0; k < index.length; k++) {
+                if (value[k] != 0) {
+                    this.indices[j][size] = index[k];
+                    this.values[j][size++] = value[k];
+                }
+            }
+            count += size;
+        }
+
+        nonZeroNbr = count;
+    }
+
+    /**
+     * Create a sparse matrix from a dense one.
+     *
+     * @param matrix The dense matrix.
+     */
+    public SparseIntegerMatrix(final IntegerMatrix matrix) {
+        rows = matrix.getRowNbr();
+        columns = matrix.getColumnNbr();
+        indices = new int[columns][];
+        values = new int[columns][];
+
+        final int[] index = new int[rows];
+        final int[] value = new int[rows];
+        int count = 0;
+        for (int j = 0; j < columns; j++) {
+            int size = 0;
+            for (int i = 0; i < rows; i++) {
+                final int val = matrix.getij(i, j);
+                if (val != 0) {
+                    index[size] = i;
+                    value[size++] = val;
+                }
+            }
+            indices[j] = Arrays.copyOf(index, size);
+            values[j] = Arrays.copyOf(value, size);
+            count += size;
+        }
+
+        nonZeroNbr = count;
+    }
+
+    /**
+     * Gives the dense matrix equal to this one.
+     *
+     * @return The dense matrix.
+     */
+    public IntegerMatrix toIntegerMatrix() {
+        final int[] dense = new int[rows * columns];
+        for (int j = 0; j < columns; j++) {
+            for (int k = 0; k < indices[j].length; k++) {
+                dense[indices[j][k] * columns + j] = values[j][k];
+            }
+        }
+
+        return new IntegerMatrix(dense, rows, columns);
+    }
+
+    /**
+     * Give the transpose of the matrix.
+     *
+     * @return The transposed matrix.
+     */
+    public SparseIntegerMatrix transpose() {
+        final int[] sizes = new int[rows];
+        for (final int[] index : indices) {
+            for (final int i : index) {
+                sizes[i]++;
+            }
+        }
+
+        final int[][] tIndices = new int[rows][];
+        final int[][] tValues = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            tIndices[i] = new int[sizes[i]];
+            tValues[i] = new int[sizes[i]];
+        }
+
+        Arrays.fill(sizes, 0);
+        for (int j = 0; j < columns; j++) {
+            for (int k = 0; k < indices[j].length; k++) {
+                final int i = indices[j][k];
+                tIndices[i][sizes[i]] = j;
+                tValues[i][sizes[i]++] = values[j][k];
+            }
+        }
+
+        return new SparseIntegerMatrix(columns, tIndices, tValues, nonZeroNbr);
+    }
+
+    /**
+     * Gives the non zero diagonal elements of the Smith normal form of the
+     * matrix, that is its invariant factors, in increasing divisibility order.
+     * The elimination is done with {@code long} arithmetic and restarted with
+     * {@code BigInteger} arithmetic, still on sparse columns, if it
+     * overflows.
+     *
+     * @return The invariant factors of the matrix.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public int[] getInvariantFactors() {
+        return getInvariantFactors(PivotStrategy.SMALLEST);
+    }
+
+    /**
+     * Gives the invariant factors of the matrix, the pivots of the
+     * elimination being chosen by a strategy.
+     *
+     * @param strategy The pivot strategy.
+     *
+     * @return The invariant factors of the matrix.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public int[] getInvariantFactors(final PivotStrategy strategy) {
+        final long[] factors;
+        try {
+            factors = new LongElimination().reduce(strategy);
+        } catch (final ArithmeticException ex) {
+            return WideElimination.toIntDiagonal(new BigElimination().reduce(strategy));
+        }
+
+        return WideElimination.toIntDiagonal(factors);
+    }
+
+    /**
+     * Gives the rank of the matrix if an elimination with {@code ±1} pivots
+     * only clears it. Such an elimination is made of unimodular operations,
+     * so all the invariant factors of the matrix are then one and its rank
+     * is the same over the integers and over every prime field. This is the
+     * case of most boundary matrices, and much cheaper than a Smith normal
+     * form.
+     *
+     * @return The rank, or {@code -1} if non zero entries are left without
+     * any {@code ±1} among them or if the {@code long} arithmetic overflows.
+     */
+    public int getUnitRank() {
+        try {
+            return new LongElimination().eliminateUnits();
+        } catch (final ArithmeticException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Gives the summary of the Smith normal form of the matrix without
+     * computing it when its rank is given by {@code getUnitRank}. Otherwise,
+     * this is {@code getSNFSummary()}.
+     *
+     * @return The summary of the Smith normal form.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public SNFSummary getRankSNFSummary() {
+        final int rank = getUnitRank();
+        if (rank < 0) {
+            return getSNFSummary();
+        }
+
+        final int[] factors = new int[rank];
+        Arrays.fill(factors, 1);
+        return new SNFSummary(rows, columns, factors);
+    }
+
+    /**
+     * Gives the summary of the Smith normal form of the matrix.
+     *
+     * @return The summary of the Smith normal form.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public SNFSummary getSNFSummary() {
+        return getSNFSummary(PivotStrategy.SMALLEST);
+    }
+
+    /**
+     * Gives the summary of the Smith normal form of the matrix, the pivots of
+     * the elimination being chosen by a strategy.
+     *
+     * @param strategy The pivot strategy.
+     *
+     * @return The summary of the Smith normal form.
+     *
+     * @throws ArithmeticException If an invariant factor doesn't fit in an
+     * {@code int}.
+     */
+    public SNFSummary getSNFSummary(final PivotStrategy strategy) {
+        return new SNFSummary(rows, columns, getInvariantFactors(strategy));
+    }
+
+    /**
+     * Give the Smith normal form of the matrix.
+     *
+     * @return The Smith normal form of the matrix.
+     */
+    public SparseIntegerMatrix toSNF() {
+        return toSNF(PivotStrategy.SMALLEST);
+    }
+
+    /**
+     * Give the Smith normal form of the matrix, the pivots of the elimination
+     * being chosen by a strategy.
+     *
+     * @param strategy The pivot strategy.
+     *
+     * @return The Smith normal form of the matrix.
+     */
+    public SparseIntegerMatrix toSNF(final PivotStrategy strategy) {
+        final int[] factors = getInvariantFactors(strategy);
+        final int[][] snfIndices = new int[columns][];
+        final int[][] snfValues = new int[columns][];
+
+        for (int j = 0; j < columns; j++) {
+            if (j < factors.length) {
+                snfIndices[j] = new int[]{j};
+                snfValues[j] = new int[]{factors[j]};
+            } else {
+                snfIndices[j] = new int[0];
+                snfValues[j] = new int[0];
+            }
+        }
+
+        return new SparseIntegerMatrix(rows, snfIndices, snfValues, factors.length);
+    }
+
+    /**
+     * Returns a matrix filled with zeros.
+     *
+     * @param row The number of rows.
+     * @param column The number of columns.
+     *
+     * @return The null matrix.
+     */
+    public static SparseIntegerMatrix getEmpty(final int row, final int column) {
+        final int[][] empty = new int[column][];
+        Arrays.fill(empty, new int[0]);
+
+        return new SparseIntegerMatrix(row, empty, empty, 0);
+    }
+
+    /**
+     * Gives the block diagonal matrix with the given blocks, the first one
+     * in the upper left corner. The columns of the blocks are not copied: the
+     * value arrays are shared, and so are the row indices of the blocks
+     * starting at row {@code 0}, the others being shifted.
+     *
+     * @param blocks The diagonal blocks.
+     *
+     * @return The block diagonal matrix.
+     */
+    public static SparseIntegerMatrix blockDiagonal(final SparseIntegerMatrix... blocks) {
+        int rowNbr = 0, columnNbr = 0, count = 0;
+        for (final SparseIntegerMatrix block : blocks) {
+            rowNbr += block.rows;
+            columnNbr += block.columns;
+            count += block.nonZeroNbr;
+        }
+
+        final int[][] blockIndices = new int[columnNbr][];
+        final int[][] blockValues = new int[columnNbr][];
+        int rowOffset = 0, column = 0;
+        for (final SparseIntegerMatrix block : blocks) {
+            for (int j = 0; j < block.columns; j++) {
+                if (rowOffset == 0) {
+                    blockIndices[column] = block.indices[j];
+                } else {
+                    blockIndices[column] = new int[block.indices[j].length];
+                    for (int k = 0; k < block.indices[j].length; k++) {
+                        blockIndices[column][k] = block.indices[j][k] + rowOffset;
+                    }
+                }
+                blockValues[column++] = block.values[j];
+            }
+            rowOffset += block.rows;
+        }
+
+        return new SparseIntegerMatrix(rowNbr, blockIndices, blockValues, count);
+    }
+
+    /**
+     * Returns an element of the matrix.
+     *
+     * @param i The row number.
+     * @param j The column number.
+     *
+     * @return The value of the (i,j) element of the matrix.
+     */
+    public int getij(final int i, final int j) {
+        final int k = Arrays.binarySearch(indices[j], i);
+        return k < 0 ? 0 : values[j][k];
+    }
+
+    /**
+     * Returns the row indices of the non zero elements of a column.
+     *
+     * @param j The column number.
+     *
+     * @return The strictly increasing row indices.
+     */
+    public int[] getColumnIndices(final int j) {
+        return indices[j].clone();
+    }
+
+    /**
+     * Returns the non zero elements of a column.
+     *
+     * @param j The column number.
+     *
+     * @return The values, matching {@code getColumnIndices(j)}.
+     */
+    public int[] getColumnValues(final int j) {
+        return values[j].clone();
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getRowNbr() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int getColumnNbr() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of non zero elements.
+     *
+     * @return The number of non zero elements.
+     */
+    public int getNonZeroNbr() {
+        return nonZeroNbr;
+    }
+
+    /**
+     * Tells if the matrix is empty, that is has neither rows nor columns. A
+     * matrix with no rows but some columns is the null map to the null
+     * module and isn't empty.
+     *
+     * @return {@code true} if the matrix is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return rows == 0 && columns == 0;
+    }
+
+    /**
+     * Gives the order in which the columns are reduced by an elimination.
+     *
+     * @param strategy The pivot strategy.
+     *
+     * @return The column indices.
+     */
+    private int[] getColumnOrder(final PivotStrategy strategy) {
+        final int[] order = new int[columns];
+        if (!strategy.isByColumnCount()) {
+            for (int j = 0; j < columns; j++) {
+                order[j] = j;
+            }
+            return order;
+        }
+
+        final long[] keys = new long[columns];
+        for (int j = 0; j < columns; j++) {
+            keys[j] = (long) indices[j].length << 32 | j;
+        }
+        Arrays.sort(keys);
+        for (int j = 0; j < columns; j++) {
+            order[j] = (int) keys[j];
+        }
+
+        return order;
+    }
+
+    /**
+     * Mutable working copy of the matrix used to compute the Smith normal
+     * form. Columns are processed in order, rows are only accessed through
+     * occurrence lists which may contain stale or duplicated columns, the
+     * true number of non zero entries of each row being counted apart. This
+     * class handles the row indices and the occurrence lists, the subclasses
+     * hold the values and do the arithmetic.
+     */
+    private abstract class Elimination {
+
+        protected final int[][] colIndices = new int[columns][];
+        protected final int[] colSizes = new int[columns];
+        private final int[][] rowColumns = new int[rows][];
+        private final int[] rowSizes = new int[rows];
+        private final int[] rowCounts = new int[rows];
+        private final int[] marks = new int[columns];
+        private int stamp = 0;
+
+        /**
+         * Copies the row indices of the matrix and builds the row occurrence
+         * lists.
+         */
+        private Elimination() {
+            for (int j = 0; j < columns; j++) {
+                colIndices[j] = indices[j].clone();
+                colSizes[j] = indices[j].length;
+                for (final int i : indices[j]) {
+                    rowSizes[i]++;
+                }
+            }
+            for (int i = 0; i < rows; i++) {
+                rowColumns[i] = new int[Math.max(rowSizes[i], 2)];
+                rowCounts[i] = rowSizes[i];
+                rowSizes[i] = 0;
+            }
+            for (int j = 0; j < columns; j++) {
+                for (final int i : indices[j]) {
+                    rowColumns[i][rowSizes[i]++] = j;
+                }
+            }
+        }
+
+        /**
+         * Runs the elimination, giving the pivots to {@code storePivot}.
+         *
+         * @param strategy The pivot strategy.
+         *
+         * @return The rank of the matrix.
+         */
+        protected final int eliminate(final PivotStrategy strategy) {
+            final int[] order = getColumnOrder(strategy);
+            int rank = strategy.isUnitFirst() ? eliminateUnits(order, strategy.isFewestRowEntries()) : 0;
+
+            for (final int c : order) {
+                while (colSizes[c] > 0) {
+                    final int position = findPivot(c, strategy.isFewestRowEntries());
+                    final int r = colIndices[c][position];
+                    savePivot(c, position);
+
+                    if (!clearColumn(c, r)) {
+                        continue;
+                    }
+
+                    final int next = clearRow(c, r);
+                    if (next < 0) {
+                        storePivot(rank++);
+                        colSizes[c] = 0;
+                        rowSizes[r] = 0;
+                        rowCounts[r] = 0;
+                    } else {
+                        swapColumns(c, next);
+                    }
+                }
+            }
+
+            return rank;
+        }
+
+        /**
+         * Runs the elimination with {@code ±1} pivots only, giving them to
+         * {@code storePivot}.
+         *
+         * @return The rank of the matrix if it is cleared, {@code -1} if non
+         * zero entries are left without any {@code ±1} among them.
+         */
+        protected final int eliminateUnits() {
+            final int rank = eliminateUnits(getColumnOrder(PivotStrategy.SPARSEST), true);
+            for (int j = 0; j < columns; j++) {
+                if (colSizes[j] > 0) {
+                    return -1;
+                }
+            }
+
+            return rank;
+        }
+
+        /**
+         * Uses the {@code ±1} entries as pivots until there is none left,
+         * giving them to {@code storePivot} from index zero.
+         *
+         * @param order The order in which the columns are searched.
+         * @param fewestRowEntries {@code true} to choose in each column the
+         * entry whose row has the fewest entries.
+         *
+         * @return The number of pivots.
+         */
+        private int eliminateUnits(final int[] order, final boolean fewestRowEntries) {
+            int rank = 0;
+            boolean found = true;
+            while (found) {
+                found = false;
+                for (final int c : order) {
+                    final int position = findUnit(c, fewestRowEntries);
+                    if (position >= 0) {
+                        final int r = colIndices[c][position];
+                        savePivot(c, position);
+                        clearColumn(c, r);
+                        clearRow(c, r);
+                        storePivot(rank++);
+                        colSizes[c] = 0;
+                        rowSizes[r] = 0;
+                        rowCounts[r] = 0;
+                        found = true;
+                    }
+                }
+            }
+
+            return rank;
+        }
+
+        /**
+         * Finds the entry of smallest absolute value of a non null column.
+         *
+         * @param c The column.
+         * @param fewestRowEntries {@code true} to choose, among the entries of
+         * smallest absolute value, the one whose row has the fewest entries.
+         *
+         * @return The position of the pivot in the column arrays.
+         */
+        private int findPivot(final int c, final boolean fewestRowEntries) {
+            int position = 0;
+            for (int k = 1; k < colSizes[c] && (fewestRowEntries || !isUnit(c, position)); k++) {
+                final int comparison = compareAbs(c, k, c, position);
+                if (comparison < 0 || comparison == 0 && fewestRowEntries
+                        && rowCounts[colIndices[c][k]] < rowCounts[colIndices[c][position]]) {
+                    position = k;
+                }
+            }
+
+            return position;
+        }
+
+        /**
+         * Finds a {@code ±1} entry in a column.
+         *
+         * @param c The column.
+         * @param fewestRowEntries {@code true} to choose the one whose row has
+         * the fewest entries, {@code false} for the first one.
+         *
+         * @return The position of the entry in the column arrays, {@code -1}
+         * if there is none.
+         */
+        private int findUnit(final int c, final boolean fewestRowEntries) {
+            int position = -1;
+            for (int k = 0; k < colSizes[c]; k++) {
+                if (isUnit(c, k)) {
+                    if (!fewestRowEntries) {
+                        return k;
+                    }
+                    if (position == -1 || rowCounts[colIndices[c][k]] < rowCounts[colIndices[c][position]]) {
+                        position = k;
+                    }
+                }
+            }
+
+            return position;
+        }
+
+        /**
+         * Reduces the entries of a column modulo the saved pivot with row
+         * operations.
+         *
+         * @param c The column.
+         * @param r The pivot row.
+         *
+         * @return {@code true} if the pivot is the only non zero entry left in
+         * the column, {@code false} otherwise.
+         */
+        private boolean clearColumn(final int c, final int r) {
+            final int size = colSizes[c];
+            final int[] rowsToReduce = Arrays.copyOf(colIndices[c], size);
+
+            boolean cleared = true;
+            for (int k = 0; k < size; k++) {
+                final int i = rowsToReduce[k];
+                if (i == r) {
+                    continue;
+                }
+                if (setQuotient(k)) {
+                    addRow(i, r);
+                }
+                if (!isDivisible(k)) {
+                    cleared = false;
+                }
+            }
+
+            return cleared;
+        }
+
+        /**
+         * Reduces the entries of the pivot row modulo the saved pivot with
+         * column operations, assuming the pivot is alone in its column.
+         *
+         * @param c The pivot column.
+         * @param r The pivot row.
+         *
+         * @return The column holding the smallest non zero remainder, or
+         * {@code -1} if the row is cleared.
+         */
+        private int clearRow(final int c, final int r) {
+            final int[] list = rowColumns[r];
+            final int size = rowSizes[r];
+            int newSize = 0;
+            int next = -1, nextPosition = -1;
+
+            stamp++;
+            for (int k = 0; k < size; k++) {
+                final int j = list[k];
+                if (j == c || marks[j] == stamp) {
+                    continue;
+                }
+                marks[j] = stamp;
+
+                final int position = Arrays.binarySearch(colIndices[j], 0, colSizes[j], r);
+                if (position < 0) {
+                    continue;
+                }
+
+                if (reduceEntry(j, position)) {
+                    removeEntry(j, position);
+                } else {
+                    list[newSize++] = j;
+                    if (next < 0 ? compareToPivot(j, position) < 0 : compareAbs(j, position, next, nextPosition) < 0) {
+                        next = j;
+                        nextPosition = position;
+                    }
+                }
+            }
+            rowSizes[r] = newSize;
+
+            if (next >= 0) {
+                appendRowColumn(r, c);
+            }
+
+            return next;
+        }
+
+        /**
+         * Adds the saved quotient times a row to another.
+         *
+         * @param row1 The row index in wich we add a multiple of the second
+         * one.
+         * @param row2 The second row index.
+         */
+        private void addRow(final int row1, final int row2) {
+            final int[] list = rowColumns[row2];
+            final int size = rowSizes[row2];
+            int newSize = 0;
+
+            stamp++;
+            for (int l = 0; l < size; l++) {
+                final int j = list[l];
+                if (marks[j] == stamp) {
+                    continue;
+                }
+                marks[j] = stamp;
+
+                final int position = Arrays.binarySearch(colIndices[j], 0, colSizes[j], row2);
+                if (position < 0) {
+                    continue;
+                }
+                list[newSize++] = j;
+
+                final int target = Arrays.binarySearch(colIndices[j], 0, colSizes[j], row1);
+                if (target >= 0) {
+                    if (addProduct(j, target, position)) {
+                        removeEntry(j, target);
+                    }
+                } else {
+                    insertEntry(j, -target - 1, row1, position);
+                    appendRowColumn(row1, j);
+                }
+            }
+            rowSizes[row2] = newSize;
+        }
+
+        /**
+         * Exchanges two columns and records the moved entries in the row
+         * occurrence lists.
+         *
+         * @param column1 The first column index.
+         * @param column2 The second column index.
+         */
+        private void swapColumns(final int column1, final int column2) {
+            final int[] tempIndices = colIndices[column1];
+            final int tempSize = colSizes[column1];
+            colIndices[column1] = colIndices[column2];
+            colSizes[column1] = colSizes[column2];
+            colIndices[column2] = tempIndices;
+            colSizes[column2] = tempSize;
+            swapValues(column1, column2);
+
+            for (int k = 0; k < colSizes[column1]; k++) {
+                appendRowColumn(colIndices[column1][k], column1);
+            }
+            for (int k = 0; k < colSizes[column2]; k++) {
+                appendRowColumn(colIndices[column2][k], column2);
+            }
+        }
+
+        /**
+         * Inserts in a column the product of the saved quotient with another
+         * entry of the column.
+         *
+         * @param j The column.
+         * @param position The position in the column arrays.
+         * @param i The row index.
+         * @param source The position of the multiplied entry.
+         */
+        private void insertEntry(final int j, final int position, final int i, final int source) {
+            final int size = colSizes[j];
+            if (size == colIndices[j].length) {
+                final int capacity = Math.max(4, size + (size >> 1));
+                colIndices[j] = Arrays.copyOf(colIndices[j], capacity);
+                growValues(j, capacity);
+            }
+            insertProduct(j, position, source);
+            System.arraycopy(colIndices[j], position, colIndices[j], position + 1, size - position);
+            colIndices[j][position] = i;
+            colSizes[j] = size + 1;
+            rowCounts[i]++;
+        }
+
+        /**
+         * Removes an entry from a column.
+         *
+         * @param j The column.
+         * @param position The position in the column arrays.
+         */
+        private void removeEntry(final int j, final int position) {
+            rowCounts[colIndices[j][position]]--;
+            removeValue(j, position);
+            System.arraycopy(colIndices[j], position + 1, colIndices[j], position, colSizes[j] - position - 1);
+            colSizes[j]--;
+        }
+
+        /**
+         * Records that a column may contain an entry in a row.
+         *
+         * @param i The row.
+         * @param j The column.
+         */
+        private void appendRowColumn(final int i, final int j) {
+            if (rowSizes[i] == rowColumns[i].length) {
+                rowColumns[i] = Arrays.copyOf(rowColumns[i], rowSizes[i] << 1);
+            }
+            rowColumns[i][rowSizes[i]++] = j;
+        }
+
+        /**
+         * Saves the pivot and a copy of the values of its column.
+         *
+         * @param c The pivot column.
+         * @param position The position of the pivot in the column arrays.
+         */
+        protected abstract void savePivot(int c, int position);
+
+        /**
+         * Stores the saved pivot as a diagonal element.
+         *
+         * @param index The index of the diagonal element.
+         */
+        protected abstract void storePivot(int index);
+
+        /**
+         * Tells if an entry is {@code ±1}.
+         *
+         * @param j The column.
+         * @param position The position in the column arrays.
+         *
+         * @return {@code true} if it is, {@code false} otherwise.
+         */
+        protected abstract boolean isUnit(int j, int position);
+
+        /**
+         * Compares the absolute values of two entries.
+         *
+         * @param j1 The column of the first entry.
+         * @param position1 The position of the first entry.
+         * @param j2 The column of the second entry.
+         * @param position2 The position of the second entry.
+         *
+         * @return A negative, zero or positive integer as the first absolute
+         * value is less than, equal to or greater than the second.
+         */
+        protected abstract int compareAbs(int j1, int position1, int j2, int position2);
+
+        /**
+         * Compares the absolute value of an entry with the one of the saved
+         * pivot.
+         *
+         * @param j The column.
+         * @param position The position in the column arrays.
+         *
+         * @return A negative, zero or positive integer as the entry is less
+         * than, equal to or greater than the pivot in absolute value.
+         */
+        protected abstract int compareToPivot(int j, int position);
+
+        /**
+         * Saves the opposite of the quotient by the pivot of an entry of the
+         * saved pivot column.
+         *
+         * @param k The position of the entry in the saved column.
+         *
+         * @return {@code true} if the quotient isn't zero.
+         */
+        protected abstract boolean setQuotient(int k);
+
+        /**
+         * Tells if an entry of the saved pivot column is divisible by the
+         * pivot.
+         *
+         * @param k The position of the entry in the saved column.
+         *
+         * @return {@code true} if it is, {@code false} otherwise.
+         */
+        protected abstract boolean isDivisible(int k);
+
+        /**
+         * Replaces an entry by its remainder modulo the saved pivot.
+         *
+         * @param j The column.
+         * @param position The position in the column arrays.
+         *
+         * @return {@code true} if the remainder is zero.
+         */
+        protected abstract boolean reduceEntry(int j, int position);
+
+        /**
+         * Adds to an entry the saved quotient times another entry of its
+         * column.
+         *
+         * @param j The column.
+         * @param target The position of the modified entry.
+         * @param source The position of the multiplied entry.
+         *
+         * @return {@code true} if the sum is zero.
+         */
+        protected abstract boolean addProduct(int j, int target, int source);
+
+        /**
+         * Shifts the values of a column from a position to make room for the
+         * product of the saved quotient with another of its entries, and
+         * writes it there. The column has room for one more value.
+         *
+         * @param j The column.
+         * @param position The position of the new value.
+         * @param source The position of the multiplied entry, before the
+         * shift.
+         */
+        protected abstract void insertProduct(int j, int position, int source);
+
+        /**
+         * Removes a value from a column.
+         *
+         * @param j The column.
+         * @param position The position of the value.
+         */
+        protected abstract void removeValue(int j, int position);
+
+        /**
+         * Enlarges the value array of a column.
+         *
+         * @param j The column.
+         * @param capacity The new capacity.
+         */
+        protected abstract void growValues(int j, int capacity);
+
+        /**
+         * Exchanges the values of two columns.
+         *
+         * @param column1 The first column index.
+         * @param column2 The second column index.
+         */
+        protected abstract void swapValues(int column1, int column2);
+    }
+
+    /**
+     * Elimination with {@code long} values.
+     */
+    private final class LongElimination extends Elimination {
+
+        private final long[][] colValues = new long[columns][];
+        private final long[] diagonal = new long[Math.min(rows, columns)];
+        private long[] coefficients;
+        private long pivot, quotient;
+
+        /**
+         * Copies the matrix.
+         */
+        private LongElimination() {
+            for (int j = 0; j < columns; j++) {
+                colValues[j] = new long[values[j].length];
+                for (int k = 0; k < values[j].length; k++) {
+                    colValues[j][k] = values[j][k];
+                }
+            }
+        }
+
+        /**
+         * Runs the elimination.
+         *
+         * @param strategy The pivot strategy.
+         *
+         * @return The normalized invariant factors.
+         *
+         * @throws ArithmeticException If the {@code long} arithmetic
+         * overflows.
+         */
+        private long[] reduce(final PivotStrategy strategy) {
+            final long[] factors = Arrays.copyOf(diagonal, eliminate(strategy));
+            WideElimination.normalizeDiagonal(factors);
+            return factors;
+        }
+
+        @Override
+        protected void savePivot(final int c, final int position) {
+            coefficients = Arrays.copyOf(colValues[c], colSizes[c]);
+            pivot = coefficients[position];
+        }
+
+        @Override
+        protected void storePivot(final int index) {
+            diagonal[index] = pivot;
+        }
+
+        @Override
+        protected boolean isUnit(final int j, final int position) {
+            return WideElimination.absExact(colValues[j][position]) == 1;
+        }
+
+        @Override
+        protected int compareAbs(final int j1, final int position1, final int j2, final int position2) {
+            return Long.compare(WideElimination.absExact(colValues[j1][position1]),
+                    WideElimination.absExact(colValues[j2][position2]));
+        }
+
+        @Override
+        protected int compareToPivot(final int j, final int position) {
+            return Long.compare(WideElimination.absExact(colValues[j][position]), WideElimination.absExact(pivot));
+        }
+
+        @Override
+        protected boolean setQuotient(final int k) {
+            quotient = Math.negateExact(coefficients[k] / pivot);
+            return quotient != 0;
+        }
+
+        @Override
+        protected boolean isDivisible(final int k) {
+            return coefficients[k] % pivot == 0;
+        }
+
+        @Override
+        protected boolean reduceEntry(final int j, final int position) {
+            colValues[j][position] %= pivot;
+            return colValues[j][position] == 0;
+        }
+
+        @Override
+        protected boolean addProduct(final int j, final int target, final int source) {
+            colValues[j][target] = Math.addExact(colValues[j][target],
+                    Math.multiplyExact(quotient, colValues[j][source]));
+            return colValues[j][target] == 0;
+        }
+
+        @Override
+        protected void insertProduct(final int j, final int position, final int source) {
+            final long product = Math.multiplyExact(quotient, colValues[j][source]);
+            System.arraycopy(colValues[j], position, colValues[j], position + 1, colSizes[j] - position);
+            colValues[j][position] = product;
+        }
+
+        @Override
+        protected void removeValue(final int j, final int position) {
+            System.arraycopy(colValues[j], position + 1, colValues[j], position, colSizes[j] - position - 1);
+        }
+
+        @Override
+        protected void growValues(final int j, final int capacity) {
+            colValues[j] = Arrays.copyOf(colValues[j], capacity);
+        }
+
+        @Override
+        protected void swapValues(final int column1, final int column2) {
+            final long[] temp = colValues[column1];
+            colValues[column1] = colValues[column2];
+            colValues[column2] = temp;
+        }
+    }
+
+    /**
+     * Elimination with {@code BigInteger} values, used when the {@code long}
+     * arithmetic overflows. The matrix stays stored by sparse columns.
+     */
+    private final class BigElimination extends Elimination {
+
+        private final BigInteger[][] colValues = new BigInteger[columns][];
+        private final BigInteger[] diagonal = new BigInteger[Math.min(rows, columns)];
+        private BigInteger[] coefficients;
+        private BigInteger pivot, quotient;
+
+        /**
+         * Copies the matrix.
+         */
+        private BigElimination() {
+            for (int j = 0; j < columns; j++) {
+                colValues[j] = new BigInteger[values[j].length];
+                for (int k = 0; k < values[j].length; k++) {
+                    colValues[j][k] = BigInteger.valueOf(values[j][k]);
+                }
+            }
+        }
+
+        /**
+         * Runs the elimination.
+         *
+         * @param strategy The pivot strategy.
+         *
+         * @return The normalized invariant factors.
+         */
+        private BigInteger[] reduce(final PivotStrategy strategy) {
+            final BigInteger[] factors = Arrays.copyOf(diagonal, eliminate(strategy));
+            WideElimination.normalizeDiagonal(factors);
+            return factors;
+        }
+
+        @Override
+        protected void savePivot(final int c, final int position) {
+            coefficients = Arrays.copyOf(colValues[c], colSizes[c]);
+            pivot = coefficients[position];
+        }
+
+        @Override
+        protected void storePivot(final int index) {
+            diagonal[index] = pivot;
+        }
+
+        @Override
+        protected boolean isUnit(final int j, final int position) {
+            return colValues[j][position].abs().equals(BigInteger.ONE);
+        }
+
+        @Override
+        protected int compareAbs(final int j1, final int position1, final int j2, final int position2) {
+            return colValues[j1][position1].abs().compareTo(colValues[j2][position2].abs());
+        }
+
+        @Override
+        protected int compareToPivot(final int j, final int position) {
+            return colValues[j][position].abs().compareTo(pivot.abs());
+        }
+
+        @Override
+        protected boolean setQuotient(final int k) {
+            quotient = coefficients[k].divide(pivot).negate();
+            return quotient.signum() != 0;
+        }
+
+        @Override
+        protected boolean isDivisible(final int k) {
+            return coefficients[k].remainder(pivot).signum() == 0;
+        }
+
+        @Override
+        protected boolean reduceEntry(final int j, final int position) {
+            colValues[j][position] = colValues[j][position].remainder(pivot);
+            return colValues[j][position].signum() == 0;
+        }
+
+        @Override
+        protected boolean addProduct(final int j, final int target, final int source) {
+            colValues[j][target] = colValues[j][target].add(quotient.multiply(colValues[j][source]));
+            return colValues[j][target].signum() == 0;
+        }
+
+        @Override
+        protected void insertProduct(final int j, final int position, final int source) {
+            final BigInteger product = quotient.multiply(colValues[j][source]);
+            System.arraycopy(colValues[j], position, colValues[j], position + 1, colSizes[j] - position);
+            colValues[j][position] = product;
+        }
+
+        @Override
+        protected void removeValue(final int j, final int position) {
+            System.arraycopy(colValues[j], position + 1, colValues[j], position, colSizes[j] - position - 1);
+            colValues[j][colSizes[j] - 1] = null;
+        }
+
+        @Override
+        protected void growValues(final int j, final int capacity) {
+            colValues[j] = Arrays.copyOf(colValues[j], capacity);
+        }
+
+        @Override
+        protected void swapValues(final int column1, final int column2) {
+            final BigInteger[] temp = colValues[column1];
+            colValues[column1] = colValues[column2];
+            colValues[column2] = temp;
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package maths.matrix;
+
+import java.math.BigInteger;
+import maths.numbers.IntegerCalc;
+
+/**
+ * Static class holding the {@code long} and {@code BigInteger} versions of the
+ * eliminations of {@code IntegerMatrix}, used when the {@code int} arithmetic
+ * overflows, and its fraction-free determinant.
+ *
+ * @author flo
+ */
+final class WideElimination {
+
+    /**
+     * Non instanciable class.
+     */
+    private WideElimination() {
+    }
+
+    /**
+     * Copies a matrix in an array of {@code long}.
+     *
+     * @param matrix The matrix.
+     *
+     * @return The array.
+     */
+    static long[][] toLongArray(final IntegerMatrix matrix) {
+        final int rows = matrix.getRowNbr();
+        final int columns = matrix.getColumnNbr();
+        final long[][] mat = new long[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                mat[i][j] = matrix.getij(i, j);
+            }
+        }
+
+        return mat;
+    }
+
+    /**
+     * Copies a matrix in an array of {@code BigInteger}.
+     *
+     * @param matrix The matrix.
+     *
+     * @return The array.
+     */
+    static BigInteger[][] toBigArray(final IntegerMatrix matrix) {
+        final int rows = matrix.getRowNbr();
+        final int columns = matrix.getColumnNbr();
+        final BigInteger[][] mat = new BigInteger[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                mat[i][j] = BigInteger.valueOf(matrix.getij(i, j));
+            }
+        }
+
+        return mat;
+    }
+
+    /**
+     * Converts a diagonal to {@code int}.
+     *
+     * @param diagonal The diagonal.
+     *
+     * @return The diagonal as an array of {@code int}.
+     *
+     * @throws ArithmeticException If an element doesn't fit in an {@code int}.
+     */
+    static int[] toIntDiagonal(final long[] diagonal) {
+        final int[] result = new int[diagonal.length];
+        for (int i = 0; i < diagonal.length; i++) {
+            result[i] = Math.toIntExact(diagonal[i]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Converts a diagonal to {@code int}.
+     *
+     * @param diagonal The diagonal.
+     *
+     * @return The diagonal as an array of {@code int}.
+     *
+     * @throws ArithmeticException If an element doesn't fit in an {@code int}.
+     */
+    static int[] toIntDiagonal(final BigInteger[] diagonal) {
+        final int[] result = new int[diagonal.length];
+        for (int i = 0; i < diagonal.length; i++) {
+            result[i] = diagonal[i].intValueExact();
+        }
+
+        return result;
+    }
+
+    /**
+     * Gives the diagonal of the Smith normal form of a matrix of {@code long},
+     * modifying the array.
+     *
+     * @param snf The matrix.
+     *
+     * @return The diagonal, of length {@code min(rows, columns)}.
+     *
+     * @throws ArithmeticException If the {@code long} arithmetic overflows.
+     */
+    static long[] snfDiagonal(final long[][] snf) {
+        final int rows = snf.length;
+        final int columns = rows == 0 ? 0 : snf[0].length;
+        final int length = Math.min(rows, columns);
+        final long[] factors = new long[columns];
+
+        boolean modified, rowExchanged;
+
+        for (int i = 0; i < length; i++) {
+            do {
+                rowExchanged = false;
+                long min;
+                do {
+                    modified = false;
+                    min = absExact(snf[i][i]);
+                    int position = i;
+                    for (int j = i + 1; j < columns; j++) {
+                        final long temp = absExact(snf[i][j]);
+                        if (temp > 0 && (temp < min || min == 0)) {
+                            min = temp;
+                            position = j;
+                            if (min == 1) {
+                                break;
+                            }
+                        }
+                    }
+
+                    if (min == 0) {
+                        break;
+                    } else if (position != i) {
+                        for (final long[] row : snf) {
+                            final long temp = row[i];
+                            row[i] = row[position];
+                            row[position] = temp;
+                        }
+                    }
+
+                    for (int j = i + 1; j < columns; j++) {
+                        factors[j] = Math.negateExact(snf[i][j] / snf[i][i]);
+                        if (snf[i][j] != 0) {
+                            modified = true;
+                        }
+                    }
+                    if (modified) {
+                        for (final long[] row : snf) {
+                            final long val = row[i];
+                            if (val != 0) {
+                                for (int j = i + 1; j < columns; j++) {
+                                    row[j] = Math.addExact(row[j], Math.multiplyExact(factors[j], val));
+                                }
+                            }
+                        }
+                    }
+                } while (modified == true && min != 1);
+
+                do {
+                    modified = false;
+                    min = absExact(snf[i][i]);
+                    int position = i;
+                    for (int j = i + 1; j < rows; j++) {
+                        final long temp = absExact(snf[j][i]);
+                        if (temp > 0 && (temp < min || min == 0)) {
+                            min = temp;
+                            position = j;
+                            if (min == 1) {
+                                break;
+                            }
+                        }
+                    }
+
+                    if (min == 0) {
+                        break;
+                    } else if (position != i) {
+                        final long[] temp = snf[i];
+                        snf[i] = snf[position];
+                        snf[position] = temp;
+                        rowExchanged = modified = true;
+                    }
+
+                    for (int j = i + 1; j < rows; j++) {
+                        if (snf[j][i] != 0) {
+                            final long k = Math.negateExact(snf[j][i] / snf[i][i]);
+                            for (int l = 0; l < columns; l++) {
+                                snf[j][l] = Math.addExact(snf[j][l], Math.multiplyExact(k, snf[i][l]));
+                            }
+                            modified = true;
+                        }
+                    }
+                } while (modified == true && min != 1);
+            } while (rowExchanged == true);
+        }
+
+        final long[] diagonal = new long[length];
+        for (int i = 0; i < length; i++) {
+            diagonal[i] = snf[i][i];
+        }
+        normalizeDiagonal(diagonal);
+
+        return diagonal;
+    }
+
+    /**
+     * Gives the diagonal of the Smith normal form of a matrix of
+     * {@code BigInteger}, modifying the array.
+     *
+     * @param snf The matrix.
+     *
+     * @return The diagonal, of length {@code min(rows, columns)}.
+     */
+    static BigInteger[] snfDiagonal(final BigInteger[][] snf) {
+        final int rows = snf.length;
+        final int columns = rows == 0 ? 0 : snf[0].length;
+        final int length = Math.min(rows, columns);
+        final BigInteger[] factors = new BigInteger[columns];
+
+        boolean modified, rowExchanged;
+
+        for (int i = 0; i < length; i++) {
+            do {
+                rowExchanged = false;
+                BigInteger min;
+                do {
+                    modified = false;
+                    min = snf[i][i].abs();
+                    int position = i;
+                    for (int j = i + 1; j < columns; j++) {
+                        final BigInteger temp = snf[i][j].abs();
+                        if (temp.signum() > 0 && (temp.compareTo(min) < 0 || min.signum() == 0)) {
+                            min = temp;
+                            position = j;
+                            if (min.equals(BigInteger.ONE)) {
+                                break;
+                            }
+                        }
+                    }
+
+                    if (min.signum() == 0) {
+                        break;
+                    } else if (position != i) {
+                        for (final BigInteger[] row : snf) {
+                            final BigInteger temp = row[i];
+                            row[i] = row[position];
+                            row[position] = temp;
+                        }
+                    }
+
+                    for (int j = i + 1; j < columns; j++) {
+                        factors[j] = snf[i][j].divide(snf[i][i]).negate();
+                        if (snf[i][j].signum() != 0) {
+                            modified = true;
+                        }
+                    }
+                    if (modified) {
+                        for (final BigInteger[] row : snf) {
+                            final BigInteger val = row[i];
+                            if (val.signum() != 0) {
+                                for (int j = i + 1; j < columns; j++) {
+                                    if (factors[j].signum() != 0) {
+                                        row[j] = row[j].add(factors[j].multiply(val));
+                                    }
+                                }
+                            }
+                        }
+                    }
+                } while (modified == true && !min.equals(BigInteger.ONE));
+
+                do {
+                    modified = false;
+                    min = snf[i][i].abs();
+                    int position = i;
+                    for (int j = i + 1; j < rows; j++) {
+                        final BigInteger temp = snf[j][i].abs();
+                        if (temp.signum() > 0 && (temp.compareTo(min) < 0 || min.signum() == 0)) {
+                            min = temp;
+                            position = j;
+                            if (min.equals(BigInteger.ONE)) {
+                                break;
+                            }
+                        }
+                    }
+
+                    if (min.signum() == 0) {
+                        break;
+                    } else if (position != i) {
+                        final BigInteger[] temp = snf[i];
+                        snf[i] = snf[position];
+                        snf[position] = temp;
+                        rowExchanged = modified = true;
+                    }
+
+                    for (int j = i + 1; j < rows; j++) {
+                        if (snf[j][i].signum() != 0) {
+                            final BigInteger k = snf[j][i].divide(snf[i][i]).negate();
+                            for (int l = 0; l < columns; l++) {
+                                snf[j][l] = snf[j][l].add(k.multiply(snf[i][l]));
+                            }
+                            modified = true;
+                        }
+                    }
+                } while (modified == true && !min.equals(BigInteger.ONE));
+            } while (rowExchanged == true);
+        }
+
+        final BigInteger[] diagonal = new BigInteger[length];
+        for (int i = 0; i < length; i++) {
+            diagonal[i] = snf[i][i];
+        }
+        normalizeDiagonal(diagonal);
+
+        return diagonal;
+    }
+
+    /**
+     * Gives the absolute value of an {@code int}, which doesn't fit in an
+     * {@code int} for {@code Integer.MIN_VALUE}.
+     *
+     * @param value The value.
+     *
+     * @return The absolute value.
+     *
+     * @throws ArithmeticException If the value is {@code Integer.MIN_VALUE}.
+     */
+    static int absExact(final int value) {
+        if (value == Integer.MIN_VALUE) {
+            throw new ArithmeticException("integer overflow");
+        }
+
+        return Math.abs(value);
+    }
+
+    /**
+     * Gives the absolute value of a {@code long}, which doesn't fit in a
+     * {@code long} for {@code Long.MIN_VALUE}.
+     *
+     * @param value The value.
+     *
+     * @return The absolute value.
+     *
+     * @throws ArithmeticException If the value is {@code Long.MIN_VALUE}.
+     */
+    static long absExact(final long value) {
+        if (value == Long.MIN_VALUE) {
+            throw new ArithmeticException("long overflow");
+        }
+
+        return Math.abs(value);
+    }
+
+    /**
+     * Normalizes, in place, a diagonal so that each element is positive and
+     * divides the next one, zeros being moved at the end.
+     *
+     * @param diagonal The diagonal.
+     *
+     * @throws ArithmeticException If the {@code long} arithmetic overflows.
+     */
+    static void normalizeDiagonal(final long[] diagonal) {
+        boolean modified;
+        do {
+            modified = false;
+            for (int i = 0; i < diagonal.length - 1; i++) {
+                final long v1 = diagonal[i];
+                final long v2 = diagonal[i + 1];
+                if (v1 == 0) {
+                    if (v2 != 0) {
+                        diagonal[i] = v2;
+                        diagonal[i + 1] = 0;
+                        modified = true;
+                    }
+                } else if (v2 % v1 != 0) {
+                    diagonal[i] = absExact(IntegerCalc.gCD(v1, v2));
+                    diagonal[i + 1] = Math.multiplyExact(v1 / diagonal[i], v2);
+                    modified = true;
+                }
+            }
+        } while (modified == true);
+
+        for (int i = 0; i < diagonal.length; i++) {
+            if (diagonal[i] < 0) {
+                diagonal[i] = Math.negateExact(diagonal[i]);
+            }
+        }
+    }
+
+    /**
+     * Normalizes, in place, a diagonal so that each element is positive and
+     * divides the next one, zeros being moved at the end.
+     *
+     * @param diagonal The diagonal.
+     */
+    static void normalizeDiagonal(final BigInteger[] diagonal) {
+        boolean modified;
+        do {
+            modified = false;
+            for (int i = 0; i < diagonal.length - 1; i++) {
+                final BigInteger v1 = diagonal[i];
+                final BigInteger v2 = diagonal[i + 1];
+                if (v1.signum() == 0) {
+                    if (v2.signum() != 0) {
+                        diagonal[i] = v2;
+                        diagonal[i + 1] = BigInteger.ZERO;
+                        modified = true;
+                    }
+                } else if (v2.mod(v1.abs()).signum() != 0) {
+                    diagonal[i] = v1.gcd(v2);
+                    diagonal[i + 1] = v1.divide(diagonal[i]).multiply(v2);
+                    modified = true;
+                }
+            }
+        } while (modified == true);
+
+        for (int i = 0; i < diagonal.length; i++) {
+            diagonal[i] = diagonal[i].abs();
+        }
+    }
+
+    /**
+     * Gives the determinant of a square matrix of {@code long} by Bareiss
+     * fraction-free elimination, modifying the array. Each entry of the
+     * eliminated matrix is a minor of the initial one, so intermediate values
+     * stay bounded by the Hadamard bound. If the {@code long} arithmetic
+     * overflows, the elimination goes on with {@code BigInteger} from the
+     * entry where it stopped.
+     *
+     * @param bareiss The non empty matrix.
+     *
+     * @return The determinant.
+     */
+    static BigInteger det(final long[][] bareiss) {
+        final int rows = bareiss.length;
+        boolean negate = false;
+        long previous = 1;
+        int k = 0, i = 0, j = 0;
+
+        try {
+            for (k = 0; k < rows - 1; k++) {
+                if (bareiss[k][k] == 0) {
+                    int line = k + 1;
+                    while (line < rows && bareiss[line][k] == 0) {
+                        line++;
+                    }
+                    if (line == rows) {
+                        return BigInteger.ZERO;
+                    }
+                    final long[] temp = bareiss[line];
+                    bareiss[line] = bareiss[k];
+                    bareiss[k] = temp;
+                    negate = !negate;
+                }
+
+                final long[] pivotRow = bareiss[k];
+                final long pivot = pivotRow[k];
+                for (i = k + 1; i < rows; i++) {
+                    final long[] row = bareiss[i];
+                    final long factor = row[k];
+                    for (j = k + 1; j < rows; j++) {
+                        row[j] = Math.subtractExact(Math.multiplyExact(row[j], pivot),
+                                Math.multiplyExact(factor, pivotRow[j])) / previous;
+                    }
+                }
+                previous = pivot;
+            }
+        } catch (final ArithmeticException ex) {
+            final BigInteger[][] big = new BigInteger[rows][rows];
+            for (int line = 0; line < rows; line++) {
+                for (int column = 0; column < rows; column++) {
+                    big[line][column] = BigInteger.valueOf(bareiss[line][column]);
+                }
+            }
+            return det(big, k, i, j, BigInteger.valueOf(previous), negate);
+        }
+
+        final BigInteger det = BigInteger.valueOf(bareiss[rows - 1][rows - 1]);
+        return negate ? det.negate() : det;
+    }
+
+    /**
+     * Goes on with a Bareiss elimination of a square matrix of
+     * {@code BigInteger} from a given entry of a given step, modifying the
+     * array. The entries before it in the step are already eliminated.
+     *
+     * @param bareiss The non empty matrix.
+     * @param firstStep The step to start from.
+     * @param firstRow The row to start from in the first step.
+     * @param firstColumn The column to start from in the first row.
+     * @param previous The pivot of the step before {@code firstStep}, or 1.
+     * @param negate {@code true} if rows were exchanged an odd number of
+     * times.
+     *
+     * @return The determinant.
+     */
+    private static BigInteger det(final BigInteger[][] bareiss, final int firstStep, final int firstRow,
+            final int firstColumn, final BigInteger previous, final boolean negate) {
+        final int rows = bareiss.length;
+        boolean odd = negate;
+        BigInteger divisor = previous;
+
+        for (int k = firstStep; k < rows - 1; k++) {
+            if (bareiss[k][k].signum() == 0) {
+                int line = k + 1;
+                while (line < rows && bareiss[line][k].signum() == 0) {
+                    line++;
+                }
+                if (line == rows) {
+                    return BigInteger.ZERO;
+                }
+                final BigInteger[] temp = bareiss[line];
+                bareiss[line] = bareiss[k];
+                bareiss[k] = temp;
+                odd = !odd;
+            }
+
+            final BigInteger[] pivotRow = bareiss[k];
+            final BigInteger pivot = pivotRow[k];
+            for (int i = k == firstStep ? firstRow : k + 1; i < rows; i++) {
+                final BigInteger[] row = bareiss[i];
+                final BigInteger factor = row[k];
+                for (int j = k == firstStep && i == firstRow ? firstColumn : k + 1; j < rows; j++) {
+                    row[j] = row[j].multiply(pivot).subtract(factor.multiply(pivotRow[j])).divide(divisor);
+                }
+            }
+            divisor = pivot;
+        }
+
+        return odd ? bareiss[rows - 1][rows - 1].negate() : bareiss[rows - 1][rows - 1];
+    }
+}
@@ -120,6 +120,36 @@ public final class IntegerCalc {
         }
     }
 
+    /**
+     * Returns the greatest common divisor of two {@code long}.
+     *
+     * @param a The first integer.
+     * @param b The second integer.
+     *
+     * @return The greatest common divisor of {@code a} and {@code b}.
+     */
+    public static long gCD(final long a, final long b) {
+        if (b == 0) {
+            return a;
+        }
+        if (a == 0) {
+            return b;
+        }
+        if (a == 1 || b == 1) {
+            return 1;
+        }
+
+        long a2 = a, b2 = b, r;
+        while (true) {
+            r = a2 % b2;
+            if (r == 0) {
+                return Math.abs(b2);
+            }
+            a2 = b2;
+            b2 = r;
+        }
+    }
+
     /**
      * Returns the greatest common divisor of a some integers.
      *
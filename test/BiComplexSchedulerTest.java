@@ -0,0 +1,57 @@
+
+import java.util.concurrent.ForkJoinPool;
+import maths.homology.BiComplexScheduler;
+import maths.homology.DifferentialBiComplex;
+import maths.homology.ParallelSNFCalculator;
+import maths.homology.SNFCalculator;
+import maths.matrix.IntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class BiComplexSchedulerTest {
+
+    private static DifferentialBiComplex getBiComplex() {
+        final DifferentialBiComplex biComplex = new DifferentialBiComplex(0, 0,
+                new IntegerMatrix(new int[][]{{-1, 1, 0}, {-1, 0, 1}, {0, -1, 1}}));
+        biComplex.setijDiff(1, 0, new IntegerMatrix(new int[][]{{1, -1, 1}}));
+        biComplex.setijDiff(0, 1, new IntegerMatrix(new int[][]{{2, 4, 4}, {-6, 6, 12}, {10, -4, -16}}));
+        biComplex.setijDiff(-2, 2, new IntegerMatrix(new int[][]{{6, 0}, {0, 4}, {0, 0}}));
+        biComplex.setijDiff(-1, 2, new IntegerMatrix(new int[][]{{0, 0, 5}}));
+        biComplex.setijDiff(3, 3, new IntegerMatrix(new int[][]{{0, 3}, {0, 0}}));
+
+        return biComplex;
+    }
+
+    @Test
+    public void schedulerTest() {
+        final DifferentialBiComplex biComplex = getBiComplex();
+        final String expected = biComplex.getHomology(new SNFCalculator()).toString();
+
+        try (final BiComplexScheduler scheduler = new BiComplexScheduler(false, 3)) {
+            assertEquals(biComplex.getHomology(scheduler).toString(), expected);
+            assertEquals(scheduler.getPoolSize(), 3);
+        }
+        try (final BiComplexScheduler scheduler = new BiComplexScheduler(true, 2)) {
+            assertEquals(scheduler.calculateHomology(biComplex).toString(), expected);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try (final BiComplexScheduler scheduler = new BiComplexScheduler(false, pool)) {
+            assertEquals(scheduler.calculateHomology(biComplex).toString(), expected);
+        }
+        assertFalse(pool.isShutdown());
+        pool.shutdown();
+    }
+
+    @Test
+    public void parallelCalculatorTest() {
+        final DifferentialBiComplex biComplex = getBiComplex();
+        final String expected = biComplex.getHomology(new SNFCalculator()).toString();
+        final ForkJoinPool pool = new ForkJoinPool(2);
+
+        assertEquals(biComplex.getHomology(new ParallelSNFCalculator()).toString(), expected);
+        assertEquals(biComplex.getHomology(new ParallelSNFCalculator(true, pool)).toString(), expected);
+        assertEquals(new ParallelSNFCalculator(false, pool).getParallelism(), 2);
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,41 @@
+
+import maths.homology.CachedBiHomology;
+import maths.homology.CachedHomology;
+import maths.homology.DifferentialBiComplex;
+import maths.homology.DifferentialComplex;
+import maths.homology.SNFCalculator;
+import maths.matrix.IntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class CachedHomologyTest {
+
+    @Test
+    public void updateTest() {
+        final DifferentialComplex complex = new DifferentialComplex();
+        complex.setiDiffAt(0, new IntegerMatrix(new int[][]{{1, -1}, {-1, 1}}));
+        complex.setiDiffAt(1, new IntegerMatrix(new int[][]{{1, 1}}));
+        final CachedHomology cached = new CachedHomology(complex);
+
+        assertEquals(cached.getHomology().toString(), new SNFCalculator().calculateHomology(complex).toString());
+
+        complex.setiDiffAt(0, new IntegerMatrix(new int[][]{{2, -2}, {-2, 2}}));
+
+        assertEquals(cached.getHomology().toString(), new SNFCalculator().calculateHomology(complex).toString());
+        assertEquals(cached.getHomologyAt(1).getRank(), 0);
+        assertEquals(cached.getHomologyAt(1).getTorsionPower(2), 1);
+    }
+
+    @Test
+    public void biComplexUpdateTest() {
+        final DifferentialBiComplex biComplex = new DifferentialBiComplex(0, 0, new IntegerMatrix(new int[][]{{3}}));
+        final CachedBiHomology cached = new CachedBiHomology(biComplex);
+
+        assertEquals(cached.getHomology().toString(), biComplex.getHomology(new SNFCalculator()).toString());
+
+        biComplex.setijDiff(0, 1, new IntegerMatrix(new int[][]{{0}}));
+        biComplex.setijDiff(0, 0, new IntegerMatrix(new int[][]{{5}}));
+
+        assertEquals(cached.getHomology().toString(), biComplex.getHomology(new SNFCalculator()).toString());
+    }
+}
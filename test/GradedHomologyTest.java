@@ -0,0 +1,42 @@
+
+import java.util.Arrays;
+import java.util.TreeSet;
+import maths.homology.GradedHomology;
+import maths.homology.Homology;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class GradedHomologyTest {
+
+    @Test
+    public void growingGradsTest() {
+        final GradedHomology homology = new GradedHomology();
+        for (int grad = 0; grad < 1000; grad++) {
+            homology.setHomologyAt(grad, new Homology(grad + 1));
+            homology.setHomologyAt(-grad, new Homology(grad + 1));
+        }
+
+        assertEquals(homology.getNotNullGrads().size(), 1999);
+        assertEquals(homology.getHomologyAt(999).getRank(), 1000);
+        assertEquals(homology.getHomologyAt(-999).getRank(), 1000);
+        assertEquals(homology.getHomologyAt(1000).getRank(), 0);
+    }
+
+    @Test
+    public void farApartGradsTest() {
+        final GradedHomology homology = new GradedHomology(0, new Homology(1));
+        homology.setHomologyAt(1 << 30, new Homology(2));
+        homology.setHomologyAt(Integer.MIN_VALUE, new Homology(3));
+        homology.setHomologyAt(Integer.MAX_VALUE, new Homology(4));
+
+        assertEquals(homology.getHomologyAt(0).getRank(), 1);
+        assertEquals(homology.getHomologyAt(1 << 30).getRank(), 2);
+        assertEquals(homology.getHomologyAt(Integer.MIN_VALUE).getRank(), 3);
+        assertEquals(homology.getHomologyAt(Integer.MAX_VALUE).getRank(), 4);
+        assertEquals(homology.getHomologyAt(1).getRank(), 0);
+        assertEquals(homology.getNotNullGrads(),
+                new TreeSet<>(Arrays.asList(Integer.MIN_VALUE, 0, 1 << 30, Integer.MAX_VALUE)));
+        assertEquals(homology.getFirstGrad(), Integer.MIN_VALUE);
+        assertEquals(homology.getLastGrad(), Integer.MAX_VALUE);
+    }
+}
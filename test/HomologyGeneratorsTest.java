@@ -0,0 +1,61 @@
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import static java.util.stream.Collectors.toList;
+import maths.homology.DifferentialComplex;
+import maths.homology.HomologyGenerators;
+import maths.homology.SNFCalculator;
+import maths.matrix.IntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class HomologyGeneratorsTest {
+
+    @Test
+    public void circleTest() {
+        final DifferentialComplex complex = new DifferentialComplex(0, new IntegerMatrix(new int[][]{{1, -1}, {-1, 1}}));
+        final List<HomologyGenerators> generators = new SNFCalculator().streamGenerators(complex).collect(toList());
+
+        assertEquals(generators.size(), 2);
+        final BigInteger[][] cycles = generators.get(0).getFreeGenerators();
+        assertEquals(cycles.length, 1);
+        assertEquals(cycles[0][0], cycles[0][1]);
+        assertEquals(cycles[0][0].abs(), BigInteger.ONE);
+        assertEquals(generators.get(1).getHomology().getRank(), 1);
+        assertEquals(generators.get(1).getTorsionOrders().length, 0);
+    }
+
+    @Test
+    public void torsionTest() {
+        final DifferentialComplex complex = new DifferentialComplex(0, new IntegerMatrix(new int[][]{{2}}));
+        final HomologyGenerators generators = new SNFCalculator().getGenerators(complex, 1);
+
+        assertEquals(generators.getFreeGenerators().length, 0);
+        assertEquals(generators.getTorsionOrders(), new int[]{2});
+        assertEquals(generators.getTorsionGenerators()[0][0].abs(), BigInteger.ONE);
+    }
+
+    @Test
+    public void bigKernelTest() {
+        final Random random = new Random(34);
+        final int[][] matrix = new int[10][11];
+        for (final int[] row : matrix) {
+            for (int j = 0; j < 11; j++) {
+                row[j] = random.nextInt(19) - 9;
+            }
+        }
+        final DifferentialComplex complex = new DifferentialComplex(0, new IntegerMatrix(matrix));
+        final HomologyGenerators generators = new SNFCalculator().getGenerators(complex, 0);
+
+        assertEquals(generators.getFreeGenerators().length, 1);
+        final BigInteger[] cycle = generators.getFreeGenerators()[0];
+        for (final int[] row : matrix) {
+            BigInteger image = BigInteger.ZERO;
+            for (int j = 0; j < 11; j++) {
+                image = image.add(cycle[j].multiply(BigInteger.valueOf(row[j])));
+            }
+            assertEquals(image, BigInteger.ZERO);
+        }
+    }
+}
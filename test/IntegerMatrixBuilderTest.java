@@ -0,0 +1,45 @@
+
+import maths.exceptions.MathsArgumentException;
+import maths.matrix.IntegerMatrix;
+import maths.matrix.IntegerMatrixBuilder;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class IntegerMatrixBuilderTest {
+
+    @Test
+    public void pipelineTest() throws MathsArgumentException {
+        final IntegerMatrix matrix = new IntegerMatrix(new int[][]{{1, 2, 3}, {4, 5, 6}});
+        final IntegerMatrixBuilder builder = new IntegerMatrixBuilder(matrix);
+        final IntegerMatrixBuilder transposed = new IntegerMatrixBuilder(3, 2);
+        final IntegerMatrixBuilder product = new IntegerMatrixBuilder(2, 2);
+
+        builder.addInto(matrix).transposeInto(transposed);
+        builder.multiplyInto(transposed, product).addInto(product);
+
+        assertEquals(transposed.getij(2, 1), 12);
+        assertEquals(product.freeze().toString(),
+                matrix.add(matrix).multiply(matrix.add(matrix).transpose()).add(
+                        matrix.add(matrix).multiply(matrix.add(matrix).transpose())).toString());
+        assertEquals(builder.multiplyInto(matrix.transpose(), product).getij(0, 1), 64);
+    }
+
+    @Test
+    public void freezeTest() throws MathsArgumentException {
+        final IntegerMatrixBuilder builder = new IntegerMatrixBuilder(2, 2);
+        builder.setij(0, 1, 3);
+
+        final IntegerMatrix frozen = builder.freeze();
+        builder.setij(0, 1, 5);
+        builder.addInto(frozen);
+
+        assertEquals(frozen.getij(0, 1), 3);
+        assertEquals(builder.getij(0, 1), 8);
+    }
+
+    @Test(expectedExceptions = MathsArgumentException.class)
+    public void aliasedProductTest() throws MathsArgumentException {
+        final IntegerMatrixBuilder builder = new IntegerMatrixBuilder(2, 2);
+        builder.multiplyInto(builder, builder);
+    }
+}
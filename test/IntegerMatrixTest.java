@@ -0,0 +1,125 @@
+
+import java.math.BigInteger;
+import maths.exceptions.MathsArgumentException;
+import maths.exceptions.MathsIllegalOperationException;
+import maths.matrix.IntegerMatrix;
+import maths.matrix.SparseIntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class IntegerMatrixTest {
+
+    @Test
+    public void overflowingDetTest() throws MathsIllegalOperationException {
+        final IntegerMatrix matrix = new IntegerMatrix(new int[][]{{65536, 3, 0}, {7, 65536, 1}, {0, 5, 65536}});
+
+        assertEquals(matrix.getBigDet(), new BigInteger("281474975006720"));
+    }
+
+    @Test
+    public void modularDetTest() throws MathsIllegalOperationException {
+        final int size = 40;
+        final int[][] mat = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                mat[i][j] = (i * 37 + j * j * 11) % 201 - 100;
+            }
+        }
+        final IntegerMatrix matrix = new IntegerMatrix(mat);
+        final IntegerMatrix overflowing = new IntegerMatrix(new int[][]{{65536, 3, 0}, {7, 65536, 1}, {0, 5, 65536}});
+
+        assertEquals(matrix.getModularDet(), matrix.getBigDet());
+        assertEquals(overflowing.getModularDet(), new BigInteger("281474975006720"));
+        assertEquals(new IntegerMatrix(new int[][]{{2, 4}, {1, 2}}).getSNFProduct(), BigInteger.ZERO);
+    }
+
+    @Test
+    public void overflowingSNFTest() {
+        final IntegerMatrix matrix = new IntegerMatrix(new int[][]{{2000000000, 1999999999}, {1999999999, 1999999998}});
+        final IntegerMatrix snf = matrix.toSNF();
+
+        assertEquals(snf.getij(0, 0), 1);
+        assertEquals(snf.getij(1, 1), 1);
+    }
+
+    @Test
+    public void minValueSNFTest() {
+        final IntegerMatrix matrix = new IntegerMatrix(new int[][]{{Integer.MIN_VALUE, 1, 0}, {1, 0, 0},
+        {0, 0, Integer.MIN_VALUE + 1}});
+        final int[] factors = new int[]{1, 1, Integer.MAX_VALUE};
+
+        assertEquals(matrix.getSNFSummary().getInvariantFactors(), factors);
+        assertEquals(matrix.getModularSNFSummary().getInvariantFactors(), factors);
+        assertEquals(matrix.toSNF().getij(2, 2), Integer.MAX_VALUE);
+        assertEquals(new SparseIntegerMatrix(matrix).getInvariantFactors(), factors);
+    }
+
+    @Test(expectedExceptions = ArithmeticException.class)
+    public void minValueTooBigSNFTest() {
+        new IntegerMatrix(new int[][]{{Integer.MIN_VALUE, 3}, {5, 7}}).getSNFSummary();
+    }
+
+    @Test
+    public void modularSNFTest() {
+        final IntegerMatrix square = new IntegerMatrix(new int[][]{{2, 4, 4}, {-6, 6, 12}, {10, -4, -16}});
+        final IntegerMatrix wide = new IntegerMatrix(new int[][]{{6, 0, 9}, {0, 4, 2}});
+        final IntegerMatrix singular = new IntegerMatrix(new int[][]{{1, 2}, {2, 4}});
+
+        assertEquals(square.getModularSNFSummary().getInvariantFactors(), new int[]{2, 6, 12});
+        assertEquals(wide.getModularSNFSummary().getInvariantFactors(), wide.getSNFSummary().getInvariantFactors());
+        assertEquals(wide.transpose().toModularSNF().toString(), wide.transpose().toSNF().toString());
+        assertEquals(singular.getModularSNFSummary().getInvariantFactors(), new int[]{1});
+    }
+
+    @Test
+    public void rowMajorTest() throws MathsArgumentException {
+        final int[] elements = new int[]{1, 2, 3, 4, 5, 6};
+        final IntegerMatrix matrix = new IntegerMatrix(2, 3, elements);
+        final IntegerMatrix product = matrix.multiply(matrix.transpose());
+        elements[3] = 0;
+
+        assertEquals(matrix.getij(1, 0), 4);
+        assertEquals(matrix.transpose().getij(2, 1), 6);
+        assertEquals(product.getRowNbr(), 2);
+        assertEquals(product.getij(0, 0), 14);
+        assertEquals(product.getij(0, 1), 32);
+        assertEquals(product.getij(1, 1), 77);
+    }
+
+    @Test
+    public void blockedProductTest() throws MathsArgumentException {
+        final int rows = 150, columns = 160, pcolumn = 140;
+        final int[] left = new int[rows * columns];
+        final int[] right = new int[columns * pcolumn];
+        for (int k = 0; k < left.length; k++) {
+            left[k] = k % 7 - 3;
+        }
+        for (int k = 0; k < right.length; k++) {
+            right[k] = k % 5 - 2;
+        }
+
+        final IntegerMatrix mat1 = new IntegerMatrix(rows, columns, left);
+        final IntegerMatrix mat2 = new IntegerMatrix(columns, pcolumn, right);
+        final IntegerMatrix product = mat1.multiply(mat2);
+
+        for (int i = 0; i < rows; i += 7) {
+            for (int j = 0; j < pcolumn; j += 3) {
+                int val = 0;
+                for (int k = 0; k < columns; k++) {
+                    val += mat1.getij(i, k) * mat2.getij(k, j);
+                }
+                assertEquals(product.getij(i, j), val);
+            }
+        }
+    }
+
+    @Test(expectedExceptions = MathsArgumentException.class)
+    public void rowMajorSizeTest() throws MathsArgumentException {
+        new IntegerMatrix(2, 3, new int[5]);
+    }
+
+    @Test(expectedExceptions = ArithmeticException.class)
+    public void tooBigDetTest() throws MathsIllegalOperationException {
+        new IntegerMatrix(new int[][]{{65536, 0}, {0, 65536}}).getDet();
+    }
+}
@@ -0,0 +1,88 @@
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+import maths.exceptions.MathsArgumentException;
+import maths.matrix.IntegerMatrix;
+import maths.matrix.MappedIntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class MappedIntegerMatrixTest {
+
+    Path dir;
+
+    @BeforeMethod
+    public void setUpMethod() throws IOException {
+        dir = Files.createTempDirectory("mapped");
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws IOException {
+        try (final Stream<Path> files = Files.list(dir)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void roundTripTest() throws IOException, MathsArgumentException {
+        final IntegerMatrix matrix = new IntegerMatrix(new int[][]{{1, -2, 3}, {4, 5, -6}});
+
+        try (final MappedIntegerMatrix mapped = MappedIntegerMatrix.create(dir.resolve("m.mat"), matrix)) {
+            mapped.setij(1, 2, 7);
+            assertEquals(mapped.getRow(0), new int[]{1, -2, 3});
+        }
+        try (final MappedIntegerMatrix mapped = MappedIntegerMatrix.open(dir.resolve("m.mat"));
+                final MappedIntegerMatrix transposed = mapped.transpose(dir.resolve("t.mat"))) {
+            assertEquals(mapped.getRowNbr(), 2);
+            assertEquals(mapped.getij(1, 2), 7);
+            assertEquals(mapped.getRows(1, 1).getij(0, 1), 5);
+            assertEquals(transposed.getRowNbr(), 3);
+            assertEquals(transposed.getij(2, 1), 7);
+            assertEquals(transposed.getij(1, 0), -2);
+        }
+    }
+
+    @Test
+    public void snfTest() throws IOException, MathsArgumentException {
+        final Random random = new Random(17);
+        final int[][] elements = new int[30][40];
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 40; j++) {
+                elements[i][j] = random.nextInt(7) - 3;
+            }
+        }
+        for (int i = 20; i < 30; i++) {
+            for (int j = 0; j < 40; j++) {
+                elements[i][j] = 2 * elements[i - 20][j] - elements[i - 10][j];
+            }
+        }
+        final IntegerMatrix matrix = new IntegerMatrix(elements);
+
+        try (final MappedIntegerMatrix mapped = MappedIntegerMatrix.create(dir.resolve("m.mat"), matrix);
+                final MappedIntegerMatrix snf = mapped.toSNF(dir.resolve("snf.mat"))) {
+            assertEquals(mapped.getSNFSummary().getInvariantFactors(), matrix.getSNFSummary().getInvariantFactors());
+            assertEquals(mapped.getRank(5), matrix.getRank(5));
+            assertEquals(mapped.getRank(5), 20);
+            assertEquals(snf.toIntegerMatrix().toString(), matrix.toSNF().toString());
+            assertEquals(mapped.getij(0, 0), elements[0][0]);
+        }
+    }
+
+    @Test
+    public void minValueSNFTest() throws IOException, MathsArgumentException {
+        final IntegerMatrix matrix = new IntegerMatrix(new int[][]{{Integer.MIN_VALUE, 1, 0}, {1, 0, 0},
+        {0, 0, Integer.MIN_VALUE + 1}});
+
+        try (final MappedIntegerMatrix mapped = MappedIntegerMatrix.create(dir.resolve("m.mat"), matrix)) {
+            assertEquals(mapped.getSNFSummary().getInvariantFactors(), new int[]{1, 1, Integer.MAX_VALUE});
+        }
+    }
+}
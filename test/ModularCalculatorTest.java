@@ -0,0 +1,110 @@
+
+import java.util.Random;
+import maths.homology.DifferentialComplex;
+import maths.homology.ModularCalculator;
+import maths.homology.SNFCalculator;
+import maths.matrix.IntegerMatrix;
+import maths.matrix.SparseIntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class ModularCalculatorTest {
+
+    private static int[][] getUnimodular(final int size, final Random random) {
+        final int[][] matrix = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            matrix[i][i] = 1;
+        }
+        for (int step = 0; step < 3 * size; step++) {
+            final int row1 = random.nextInt(size);
+            final int row2 = (row1 + 1 + random.nextInt(size - 1)) % size;
+            final int k = random.nextInt(5) - 2;
+            for (int j = 0; j < size; j++) {
+                matrix[row1][j] += k * matrix[row2][j];
+            }
+        }
+
+        return matrix;
+    }
+
+    private static int[][] multiply(final int[][] left, final int[][] right) {
+        final int[][] product = new int[left.length][right[0].length];
+        for (int i = 0; i < left.length; i++) {
+            for (int k = 0; k < right.length; k++) {
+                for (int j = 0; j < right[0].length; j++) {
+                    product[i][j] += left[i][k] * right[k][j];
+                }
+            }
+        }
+
+        return product;
+    }
+
+    @Test
+    public void torsionTest() {
+        final Random random = new Random(5);
+        final int[] torsions = {17, 19, 29, 2, 4, 51, 1, 65521, 65537};
+
+        for (final int torsion : torsions) {
+            final int[][] diagonal = new int[5][4];
+            diagonal[0][0] = 1;
+            diagonal[1][1] = torsion;
+            diagonal[2][2] = 3 * torsion;
+            final int[][] diff = multiply(multiply(getUnimodular(5, random), diagonal), getUnimodular(4, random));
+            final DifferentialComplex complex = new DifferentialComplex(0, new IntegerMatrix(diff));
+            complex.setiDiffAt(-1, new IntegerMatrix(new int[4][2]));
+
+            assertEquals(new ModularCalculator().calculateHomology(complex).toString(),
+                    new SNFCalculator().calculateHomology(complex).toString());
+            assertEquals(new ModularCalculator().calculateHomology(complex).getHomologyAt(1).getTorsionPower(torsion),
+                    torsion == 1 ? 0 : 1);
+        }
+    }
+
+    @Test
+    public void chainComplexTest() {
+        final DifferentialComplex complex = new DifferentialComplex(0,
+                new IntegerMatrix(new int[][]{{-1, 1, 0}, {-1, 0, 1}, {0, -1, 1}}));
+        complex.setiDiffAt(1, new IntegerMatrix(new int[][]{{1, -1, 1}}));
+
+        assertEquals(new ModularCalculator().calculateHomology(complex).toString(),
+                new SNFCalculator().calculateHomology(complex).toString());
+        assertEquals(new ModularCalculator().calculateHomology(complex).getHomologyAt(0).getRank(), 1);
+    }
+
+    @Test
+    public void unitRankTest() {
+        final int[][] edges = {{0, 1}, {0, 2}, {0, 3}, {1, 2}, {1, 3}, {2, 3}};
+        final int[][] faces = {{0, 1, 2}, {0, 1, 3}, {0, 2, 3}, {1, 2, 3}};
+        final int[][] diff0 = new int[edges.length][4];
+        for (int e = 0; e < edges.length; e++) {
+            diff0[e][edges[e][0]] = -1;
+            diff0[e][edges[e][1]] = 1;
+        }
+        final int[][] diff1 = new int[faces.length][edges.length];
+        for (int f = 0; f < faces.length; f++) {
+            for (int e = 0; e < edges.length; e++) {
+                final int[] face = faces[f];
+                if (edges[e][0] == face[1] && edges[e][1] == face[2]
+                        || edges[e][0] == face[0] && edges[e][1] == face[1]) {
+                    diff1[f][e] = 1;
+                } else if (edges[e][0] == face[0] && edges[e][1] == face[2]) {
+                    diff1[f][e] = -1;
+                }
+            }
+        }
+        final DifferentialComplex complex = new DifferentialComplex(0, new IntegerMatrix(diff0));
+        complex.setiDiffAt(1, new IntegerMatrix(diff1));
+
+        assertEquals(complex.getSparseDiff(0).getUnitRank(), 3);
+        assertEquals(complex.getSparseDiff(1).getUnitRank(), 3);
+        assertEquals(new ModularCalculator().calculateHomology(complex).toString(),
+                new SNFCalculator().calculateHomology(complex).toString());
+        assertEquals(new ModularCalculator().calculateHomology(complex).getHomologyAt(0).getRank(), 1);
+        assertEquals(new ModularCalculator().calculateHomology(complex).getHomologyAt(1).getRank(), 0);
+        assertEquals(new ModularCalculator().calculateHomology(complex).getHomologyAt(2).getRank(), 1);
+
+        assertEquals(new SparseIntegerMatrix(new IntegerMatrix(new int[][]{{1, 1}, {1, -1}})).getUnitRank(), -1);
+        assertEquals(new SparseIntegerMatrix(new IntegerMatrix(new int[][]{{2, 1, 0}, {0, 1, 1}})).getUnitRank(), 2);
+    }
+}
@@ -0,0 +1,47 @@
+
+import maths.exceptions.MathsArgumentException;
+import maths.homology.Barcode;
+import maths.homology.DifferentialComplex;
+import maths.homology.FilteredComplex;
+import maths.homology.PersistenceCalculator;
+import maths.matrix.IntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class PersistenceCalculatorTest {
+
+    @Test
+    public void barcodeTest() throws MathsArgumentException {
+        final DifferentialComplex complex = new DifferentialComplex(0, new IntegerMatrix(new int[][]{{1}, {1}}));
+        final FilteredComplex filtered = new FilteredComplex(complex);
+        filtered.setLevels(0, 2);
+        filtered.setLevels(1, 0, 1);
+
+        final Barcode barcode = new PersistenceCalculator().calculateBarcode(filtered);
+
+        assertEquals(barcode.getBarNbr(0), 0);
+        assertEquals(barcode.getBirths(1), new int[]{1, 0});
+        assertEquals(barcode.getDeaths(1), new int[]{2, Barcode.INFINITY});
+        assertEquals(barcode.getRank(1, 1), 2);
+        assertEquals(barcode.getRank(1, 2), 1);
+    }
+
+    @Test
+    public void torsionTest() throws MathsArgumentException {
+        final DifferentialComplex complex = new DifferentialComplex(0, new IntegerMatrix(new int[][]{{2}}));
+        final FilteredComplex filtered = new FilteredComplex(complex);
+        filtered.setLevels(0, 1);
+
+        assertEquals(new PersistenceCalculator(2).calculateBarcode(filtered).getRank(1, 1), 1);
+        assertEquals(new PersistenceCalculator(3).calculateBarcode(filtered).getRank(1, 1), 0);
+    }
+
+    @Test(expectedExceptions = MathsArgumentException.class)
+    public void notFiltrationTest() throws MathsArgumentException {
+        final DifferentialComplex complex = new DifferentialComplex(0, new IntegerMatrix(new int[][]{{1}}));
+        final FilteredComplex filtered = new FilteredComplex(complex);
+        filtered.setLevels(1, 1);
+
+        new PersistenceCalculator().calculateBarcode(filtered);
+    }
+}
@@ -0,0 +1,37 @@
+
+import maths.exceptions.MathsArgumentException;
+import maths.homology.DifferentialComplex;
+import maths.homology.ReducingCalculator;
+import maths.homology.SNFCalculator;
+import maths.matrix.IntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class ReducingCalculatorTest {
+
+    @Test
+    public void projectivePlaneTest() throws MathsArgumentException {
+        // Cellular cochains of RP^2 with one cell per dimension, split by
+        // a contractible pair of extra cells in dimensions 1 and 2.
+        final DifferentialComplex complex = new DifferentialComplex();
+        complex.setiDiffAt(0, new IntegerMatrix(2, 1, new int[]{0, 0}));
+        complex.setiDiffAt(1, new IntegerMatrix(2, 2, new int[]{2, 1, 0, 1}));
+
+        final DifferentialComplex reduced = complex.getReducedComplex();
+
+        assertEquals(reduced.getDiff(1).getRowNbr(), 1);
+        assertEquals(reduced.getDiff(1).getColumnNbr(), 1);
+        assertEquals(new ReducingCalculator().calculateHomology(complex).toString(),
+                new SNFCalculator().calculateHomology(complex).toString());
+    }
+
+    @Test
+    public void collapsedGradeTest() throws MathsArgumentException {
+        final DifferentialComplex complex = new DifferentialComplex();
+        complex.setiDiffAt(0, new IntegerMatrix(1, 2, new int[]{1, -1}));
+        complex.setiDiffAt(1, new IntegerMatrix(0, 1, new int[0]));
+
+        assertEquals(new ReducingCalculator(new SNFCalculator()).calculateHomology(complex).toString(),
+                new SNFCalculator().calculateHomology(complex).toString());
+    }
+}
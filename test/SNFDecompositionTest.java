@@ -0,0 +1,94 @@
+
+import java.math.BigInteger;
+import java.util.Random;
+import maths.matrix.IntegerMatrix;
+import maths.matrix.SNFDecomposition;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class SNFDecompositionTest {
+
+    @Test
+    public void transformationsTest() {
+        final int[][] matrix = {{2, 4, 4}, {-6, 6, 12}, {10, -4, -16}};
+        final SNFDecomposition snf = new SNFDecomposition(new IntegerMatrix(matrix));
+        final long[] factors = snf.getInvariantFactors();
+
+        assertEquals(factors, new long[]{2, 6, 12});
+        for (int j = 0; j < 3; j++) {
+            final long[] column = snf.getVColumn(j);
+            final long[] image = new long[3];
+            for (int i = 0; i < 3; i++) {
+                for (int k = 0; k < 3; k++) {
+                    image[i] += matrix[i][k] * column[k];
+                }
+            }
+
+            final long[] expected = new long[3];
+            expected[j] = factors[j];
+            assertEquals(snf.applyU(image), expected);
+            assertEquals(snf.applyV(snf.applyVInverse(column)), column);
+        }
+    }
+
+    @Test
+    public void kernelTest() {
+        final int[][] matrix = {{1, -1, 0}, {0, 1, -1}, {-1, 0, 1}};
+        final SNFDecomposition snf = new SNFDecomposition(new IntegerMatrix(matrix));
+        final long[] kernel = snf.getVColumn(snf.getRank());
+
+        assertEquals(snf.getRank(), 2);
+        for (final int[] row : matrix) {
+            assertEquals(row[0] * kernel[0] + row[1] * kernel[1] + row[2] * kernel[2], 0);
+        }
+        assertEquals(Math.abs(kernel[0]), 1);
+    }
+
+    @Test
+    public void bigTransformationsTest() {
+        final Random random = new Random(1);
+        for (int test = 0; test < 20; test++) {
+            final int[][] matrix = new int[8][8];
+            for (final int[] row : matrix) {
+                for (int j = 0; j < 8; j++) {
+                    row[j] = random.nextInt(19) - 9;
+                }
+            }
+            if (test % 2 == 1) {
+                for (int i = 0; i < 8; i++) {
+                    matrix[i][6] = matrix[i][2] + 3 * matrix[i][5];
+                }
+                for (int j = 0; j < 8; j++) {
+                    matrix[7][j] = 2 * matrix[0][j] - matrix[1][j];
+                }
+            }
+            final SNFDecomposition snf = new SNFDecomposition(new IntegerMatrix(matrix));
+            final long[] factors = snf.getInvariantFactors();
+
+            assertEquals(snf.getRank(), test % 2 == 1 ? 7 : 8);
+            for (int j = 0; j < 8; j++) {
+                final BigInteger[] column = snf.getBigVColumn(j);
+                final BigInteger[] image = new BigInteger[8];
+                final BigInteger[] expected = new BigInteger[8];
+                for (int i = 0; i < 8; i++) {
+                    image[i] = BigInteger.ZERO;
+                    for (int k = 0; k < 8; k++) {
+                        image[i] = image[i].add(column[k].multiply(BigInteger.valueOf(matrix[i][k])));
+                    }
+                    expected[i] = i == j && j < factors.length ? BigInteger.valueOf(factors[j]) : BigInteger.ZERO;
+                }
+
+                assertEquals(snf.applyU(image), expected);
+                assertEquals(snf.applyV(snf.applyVInverse(column)), column);
+            }
+        }
+    }
+
+    @Test
+    public void minValueTest() {
+        final int[][] matrix = {{Integer.MIN_VALUE, 1, 0}, {1, 0, 0}, {0, 0, Integer.MIN_VALUE + 1}};
+        final SNFDecomposition snf = new SNFDecomposition(new IntegerMatrix(matrix));
+
+        assertEquals(snf.getInvariantFactors(), new long[]{1, 1, Integer.MAX_VALUE});
+    }
+}
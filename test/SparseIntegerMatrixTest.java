@@ -0,0 +1,56 @@
+
+import maths.exceptions.MathsArgumentException;
+import maths.matrix.IntegerMatrix;
+import maths.matrix.PivotStrategy;
+import maths.matrix.SparseIntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class SparseIntegerMatrixTest {
+
+    @DataProvider(name = "snfPvd")
+    public Object[][] snfData() {
+        return new Object[][]{
+            {new int[][]{{0}}, new int[]{}},
+            {new int[][]{{2, 4, 4}, {-6, 6, 12}, {10, -4, -16}}, new int[]{2, 6, 12}},
+            {new int[][]{{6, 0}, {0, 4}}, new int[]{2, 12}},
+            {new int[][]{{1, -1, 0}, {0, 1, -1}, {-1, 0, 1}}, new int[]{1, 1}},
+            {new int[][]{{81, 20, 3, 4, 50}, {1, 2, 3, 0, 5}, {10, 2, 3, 4, 5}}, new int[]{1, 1, 1}},
+            {new int[][]{{1, -838105945, 0, 239313358}, {-559951496, 338663600, -603344514, 0},
+            {467861996, 44234514, 46930528, -728182284}}, new int[]{1, 2, 2}}
+        };
+    }
+
+    @Test(dataProvider = "snfPvd")
+    public void invariantFactorsTest(final int[][] matrix, final int[] expected) {
+        assertEquals(new SparseIntegerMatrix(new IntegerMatrix(matrix)).getInvariantFactors(), expected);
+    }
+
+    @Test(dataProvider = "snfPvd")
+    public void pivotStrategyTest(final int[][] matrix, final int[] expected) {
+        for (final PivotStrategy strategy : PivotStrategy.values()) {
+            assertEquals(new SparseIntegerMatrix(new IntegerMatrix(matrix)).getInvariantFactors(strategy), expected);
+            assertEquals(new IntegerMatrix(matrix).getSNFSummary(strategy).getInvariantFactors(), expected);
+        }
+    }
+
+    @Test
+    public void denseRoundTripTest() {
+        final int[][] matrix = {{0, 3, 0}, {-1, 0, 0}, {0, 0, 7}, {2, 0, 0}};
+        final SparseIntegerMatrix sparse = new SparseIntegerMatrix(new IntegerMatrix(matrix));
+
+        assertEquals(sparse.getNonZeroNbr(), 4);
+        assertEquals(sparse.transpose().getij(2, 2), 7);
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix[0].length; j++) {
+                assertEquals(sparse.toIntegerMatrix().getij(i, j), matrix[i][j]);
+            }
+        }
+    }
+
+    @Test(expectedExceptions = MathsArgumentException.class)
+    public void unsortedIndicesTest() throws MathsArgumentException {
+        new SparseIntegerMatrix(3, new int[][]{{2, 1}}, new int[][]{{1, 1}});
+    }
+}
@@ -0,0 +1,54 @@
+
+import maths.exceptions.MathsArgumentException;
+import maths.homology.DifferentialBiComplex;
+import maths.homology.GradedHomology;
+import maths.homology.Homology;
+import maths.homology.SNFCalculator;
+import maths.homology.SpectralSequence;
+import maths.matrix.IntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class SpectralSequenceTest {
+
+    @Test
+    public void totalHomologyTest() throws MathsArgumentException {
+        final DifferentialBiComplex biComplex = new DifferentialBiComplex(0, 0, new IntegerMatrix(new int[][]{{2}}));
+        biComplex.setijDiff(0, 1, new IntegerMatrix(new int[][]{{0}}));
+        final SpectralSequence sequence = new SpectralSequence(biComplex, new SNFCalculator());
+
+        final GradedHomology total = sequence.getTotalHomology();
+
+        assertEquals(sequence.getPage(3).toString(), sequence.getPage(1).toString());
+        assertEquals(total.getHomologyAt(1).toString(), new Homology(1, 2).toString());
+        assertEquals(total.getHomologyAt(2).getRank(), 1);
+        assertTrue(total.getHomologyAt(0).isEmpty());
+    }
+
+    @Test
+    public void updateTest() throws MathsArgumentException {
+        final DifferentialBiComplex biComplex = new DifferentialBiComplex(0, 0, new IntegerMatrix(new int[][]{{2}}));
+        biComplex.setijDiff(0, 1, new IntegerMatrix(new int[][]{{0}}));
+        final SpectralSequence sequence = new SpectralSequence(biComplex, new SNFCalculator());
+
+        assertEquals(sequence.getTotalHomology().getHomologyAt(1).toString(), new Homology(1, 2).toString());
+
+        biComplex.setijDiff(0, 0, new IntegerMatrix(new int[][]{{1}}));
+        biComplex.setijDiff(0, 2, new IntegerMatrix(new int[][]{{3}}));
+
+        assertEquals(sequence.getPage(1).toString(), biComplex.getHomology(new SNFCalculator()).toString());
+        assertEquals(sequence.getTotalHomology().getHomologyAt(1).getRank(), 1);
+        assertEquals(sequence.getTotalHomology().getHomologyAt(1).getTorsionPower(2), 0);
+        assertEquals(sequence.getTotalHomology().getHomologyAt(3).getTorsionPower(3), 1);
+    }
+
+    @Test
+    public void directSumTest() {
+        final Homology sum = new Homology(1, new int[]{2, 4}).directSum(new Homology(2, new int[]{2, 3}));
+
+        assertEquals(sum.getRank(), 3);
+        assertEquals(sum.getTorsionPower(2), 2);
+        assertEquals(sum.getTorsionPower(3), 1);
+        assertEquals(sum.getTorsionPower(4), 1);
+    }
+}
@@ -1,4 +1,6 @@
 
+import java.math.BigInteger;
+import java.util.Arrays;
 import maths.exceptions.MathsIllegalOperationException;
 import maths.matrix.IntegerMatrix;
 import maths.numbers.Numbers;
@@ -17,8 +19,9 @@ public class TestNGTest {
 
     static int[][] mat;
 
-    IntegerMatrix matrix;
-    int trace;
+    IntegerMatrix matrix, rectangular;
+    BigInteger det;
+    int[] factors;
 
     public TestNGTest() {
     }
@@ -33,13 +36,16 @@ public class TestNGTest {
     @BeforeMethod
     public void setUpMethod() throws Exception {
         matrix = new IntegerMatrix(mat);
-        trace = matrix.toSNF().getTrace();
+        det = matrix.getBigDet();
+        rectangular = new IntegerMatrix(Arrays.copyOf(mat, mat.length - 1));
+        factors = rectangular.getSNFSummary().getInvariantFactors();
     }
 
     @Test(groups = "gr",invocationCount = 10000,threadPoolSize = 10)
     public void test1() {
         try {
-            assertEquals(matrix.toSNF().getTrace(), trace);
+            assertEquals(matrix.getBigDet(), det);
+            assertEquals(rectangular.getSNFSummary().getInvariantFactors(), factors);
         } catch (MathsIllegalOperationException ex) {
             fail();
         }
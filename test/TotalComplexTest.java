@@ -0,0 +1,51 @@
+
+import maths.exceptions.MathsArgumentException;
+import maths.homology.DifferentialBiComplex;
+import maths.homology.GradedHomology;
+import maths.homology.SNFCalculator;
+import maths.homology.SpectralSequence;
+import maths.homology.TotalComplex;
+import maths.matrix.IntegerMatrix;
+import maths.matrix.SparseIntegerMatrix;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class TotalComplexTest {
+
+    @Test
+    public void totalDiffTest() {
+        final DifferentialBiComplex biComplex = new DifferentialBiComplex(0, 0, new IntegerMatrix(new int[][]{{2, 0}}));
+        biComplex.setijDiff(-1, 1, new IntegerMatrix(new int[][]{{1}, {3}}));
+        final TotalComplex total = biComplex.getTotalComplex();
+
+        final SparseIntegerMatrix diff = total.getSparseDiff(0);
+
+        assertEquals(biComplex.getijDiff(-1, 1).getij(1, 0), 3);
+        assertEquals(total.getFirstGrad(), 0);
+        assertEquals(total.getLastGrad(), 0);
+        assertEquals(total.getDimension(0), 3);
+        assertEquals(diff.getRowNbr(), 3);
+        assertEquals(diff.getColumnNbr(), 3);
+        assertEquals(diff.getij(0, 0), 2);
+        assertEquals(diff.getij(2, 2), 3);
+        assertEquals(diff.getNonZeroNbr(), 3);
+    }
+
+    @Test
+    public void totalHomologyTest() throws MathsArgumentException {
+        final DifferentialBiComplex biComplex = new DifferentialBiComplex(0, 0, new IntegerMatrix(new int[][]{{2}}));
+        biComplex.setijDiff(1, 0, new IntegerMatrix(new int[][]{{0}}));
+        biComplex.setijDiff(-1, 2, new IntegerMatrix(new int[][]{{1, 1}, {0, 4}}));
+        biComplex.setijDiff(0, 2, new IntegerMatrix(new int[][]{{0, 0}}));
+
+        final GradedHomology total = biComplex.getTotalComplex().getHomology(new SNFCalculator(true));
+        final GradedHomology expected = new SpectralSequence(biComplex, new SNFCalculator()).getTotalHomology();
+
+        for (int grad = 0; grad <= 3; grad++) {
+            assertEquals(total.getHomologyAt(grad).toString(), expected.getHomologyAt(grad).toString());
+        }
+        assertEquals(total.getHomologyAt(2).getRank(), 1);
+        assertEquals(total.getHomologyAt(2).getTorsionPower(4), 1);
+        assertEquals(total.getHomologyAt(3).getRank(), 1);
+    }
+}